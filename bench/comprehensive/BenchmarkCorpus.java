@@ -0,0 +1,133 @@
+package comprehensive;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Generated text for the JMH benchmarks, so every run measures the same input without shipping large files.
+ * Words are made of letters, and each word is followed by one of a fixed number of successors, its fanout,
+ * picked from a fanout distribution. Sentences start with a capital letter and end with a period, so the
+ * tokenizer lowercases and strips punctuation the way it does on real text.
+ * <p>
+ * Fanout distributions:
+ * <ul>
+ *     <li>"uniform" - every successor is equally likely, the most distinct pairs per word,</li>
+ *     <li>"zipf" - the successor of rank r has weight 1 / r, close to the pairs of natural text.</li>
+ * </ul>
+ * The same size, fanout and distribution always give the same text. The word "a" is always in the corpus
+ * and is the seed of every query benchmark.
+ *
+ * @author Elijah Tolton and Canon Curtis
+ * @version 10/18/2026
+ */
+public class BenchmarkCorpus {
+    //distinct words of every corpus
+    private static final int VOCABULARY_SIZE = 50_000;
+    //words per sentence
+    private static final int SENTENCE_LENGTH = 15;
+    //seed of the generator, fixed so every run writes the same text
+    private static final long SEED = 2420;
+
+    /**
+     * Word of the benchmarks' queries, the first word of every corpus.
+     */
+    public static final String SEED_WORD = "a";
+
+    /**
+     * Writes a corpus to a temporary file that is deleted when the JVM exits.
+     * O(words)
+     *
+     * @param words - number of words in the corpus
+     * @param fanout - number of distinct successors of every word
+     * @param distribution - "uniform" or "zipf"
+     * @return - path of the corpus
+     * @throws IOException - if the file cannot be written
+     * @throws IllegalArgumentException - if the distribution is unknown
+     */
+    public static Path write(int words, int fanout, String distribution) throws IOException {
+        Path path = Files.createTempFile("corpus-" + words + "-" + fanout + "-" + distribution + "-", ".txt");
+        path.toFile().deleteOnExit();
+        try (BufferedWriter out = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            out.write(generate(words, fanout, distribution));
+        }
+        return path;
+    }
+
+    /**
+     * Returns the text of a corpus.
+     * O(words)
+     *
+     * @param words - number of words in the corpus
+     * @param fanout - number of distinct successors of every word
+     * @param distribution - "uniform" or "zipf"
+     * @return - text of the corpus
+     * @throws IllegalArgumentException - if the distribution is unknown
+     */
+    public static String generate(int words, int fanout, String distribution) {
+        double[] cumulative = cumulativeWeights(fanout, distribution);
+        SplittableRandom random = new SplittableRandom(SEED);
+        StringBuilder text = new StringBuilder(words * 6);
+
+        int current = 0;
+        for (int i = 0; i < words; i++) {
+            String word = wordOf(current);
+            if (i % SENTENCE_LENGTH == 0)
+                text.append(Character.toUpperCase(word.charAt(0))).append(word, 1, word.length());
+            else
+                text.append(word);
+            text.append(i % SENTENCE_LENGTH == SENTENCE_LENGTH - 1 ? ".\n" : " ");
+
+            //rank of the successor, then the word at that rank for the current word
+            int rank = Arrays.binarySearch(cumulative, random.nextDouble() * cumulative[fanout - 1]);
+            rank = rank < 0 ? -rank - 1 : rank;
+            current = successor(current, rank);
+        }
+        return text.toString();
+    }
+
+    /**
+     * Returns the word with the given index, written in base 26 with the letters a to z.
+     */
+    public static String wordOf(int index) {
+        StringBuilder word = new StringBuilder();
+        do {
+            word.append((char) ('a' + index % 26));
+            index /= 26;
+        } while (index > 0);
+        return word.toString();
+    }
+
+    /**
+     * Returns the index of the successor with the given rank of a word, spread over the vocabulary
+     * so different words have different successors and no word is its own most likely successor.
+     */
+    private static int successor(int word, int rank) {
+        return (int) ((word * 7919L + 1 + rank * 4_729L) % VOCABULARY_SIZE);
+    }
+
+    /**
+     * Returns the running totals of the weights of the successor ranks.
+     *
+     * @throws IllegalArgumentException - if the distribution is unknown or fanout is not positive
+     */
+    private static double[] cumulativeWeights(int fanout, String distribution) {
+        if (fanout <= 0)
+            throw new IllegalArgumentException("fanout must be positive");
+        double[] cumulative = new double[fanout];
+        double total = 0;
+        for (int rank = 0; rank < fanout; rank++) {
+            total += switch (distribution) {
+                case "uniform" -> 1;
+                case "zipf" -> 1.0 / (rank + 1);
+                default -> throw new IllegalArgumentException("unknown fanout distribution " + distribution);
+            };
+            cumulative[rank] = total;
+        }
+        return cumulative;
+    }
+}
@@ -0,0 +1,96 @@
+package comprehensive;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JMH benchmarks of BinaryMaxHeap and TopKSelector over n words with random occurrences,
+ * the work of the query without a fourth argument once the successors are counted.
+ * buildHeap takes over the array it is given, so the heap benchmarks heap a copy of the words.
+ *
+ * @author Elijah Tolton and Canon Curtis
+ * @version 10/18/2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HeapBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    public int n;
+
+    @Param({"1", "10", "100", "1000"})
+    public int k;
+
+    private KeyValuePair[] pairs;
+
+    /**
+     * Makes the words once per parameter combination, with a Zipf like spread of occurrences.
+     */
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(2420);
+        pairs = new KeyValuePair[n];
+        for (int i = 0; i < n; i++)
+            pairs[i] = new KeyValuePair(BenchmarkCorpus.wordOf(i), n / (1 + random.nextInt(n)));
+    }
+
+    /**
+     * Heap made from every word in O(n).
+     */
+    @Benchmark
+    public BinaryMaxHeap<KeyValuePair> buildHeap() {
+        BinaryMaxHeap<KeyValuePair> heap = new BinaryMaxHeap<>();
+        heap.buildHeap(pairs.clone());
+        return heap;
+    }
+
+    /**
+     * Heap made from every word, then emptied one maximum at a time.
+     */
+    @Benchmark
+    public KeyValuePair extractMax() {
+        BinaryMaxHeap<KeyValuePair> heap = new BinaryMaxHeap<>();
+        heap.buildHeap(pairs.clone());
+        KeyValuePair last = null;
+        while (!heap.isEmpty())
+            last = heap.extractMax();
+        return last;
+    }
+
+    /**
+     * Heap made from every word, then its k largest taken.
+     */
+    @Benchmark
+    public List<KeyValuePair> findKLargest() {
+        BinaryMaxHeap<KeyValuePair> heap = new BinaryMaxHeap<>();
+        heap.buildHeap(pairs.clone());
+        return heap.findKLargest(Math.min(k, n));
+    }
+
+    /**
+     * Only the k largest kept while looking through every word, in O(n lg k).
+     */
+    @Benchmark
+    public List<KeyValuePair> topKSelector() {
+        TopKSelector<KeyValuePair> selector = TopKSelector.naturalOrder(k);
+        for (KeyValuePair pair : pairs)
+            selector.offer(pair);
+        return selector.extractSorted();
+    }
+}
@@ -0,0 +1,88 @@
+package comprehensive;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JMH benchmarks of building the model of a generated corpus file, sequentially, pipelined and in parallel,
+ * and of the n-gram model. Every operation reads the file and builds a new model.
+ *
+ * @author Elijah Tolton and Canon Curtis
+ * @version 10/18/2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class ModelBuildBenchmark {
+    @Param({"100000", "1000000", "10000000"})
+    public int words;
+
+    @Param({"16", "1024"})
+    public int fanout;
+
+    @Param({"uniform", "zipf"})
+    public String distribution;
+
+    private String path;
+
+    /**
+     * Writes the corpus file once per parameter combination.
+     */
+    @Setup
+    public void setUp() throws IOException {
+        Path corpus = BenchmarkCorpus.write(words, fanout, distribution);
+        path = corpus.toString();
+    }
+
+    /**
+     * Model read on one thread.
+     */
+    @Benchmark
+    public BigramModel sequential() throws IOException {
+        return new TextGeneratorFunctor(path).getModel();
+    }
+
+    /**
+     * Model read by the reader, tokenizer and counter threads of PipelinedModelBuilder.
+     */
+    @Benchmark
+    public BigramModel pipelined() throws IOException {
+        TextGeneratorFunctor func = new TextGeneratorFunctor(path);
+        func.setPipelined(true);
+        return func.getModel();
+    }
+
+    /**
+     * Model read on every core by ParallelModelBuilder.
+     */
+    @Benchmark
+    public BigramModel parallel() throws IOException {
+        TextGeneratorFunctor func = new TextGeneratorFunctor(path);
+        func.setParallel(true);
+        return func.getModel();
+    }
+
+    /**
+     * Model of three word contexts.
+     */
+    @Benchmark
+    public NGramModel nGram() throws IOException {
+        return NGramModel.build(new WordTokenizer(InputSource.open(path)), 3);
+    }
+}
@@ -0,0 +1,108 @@
+package comprehensive;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JMH benchmarks of the three modes of TextGenerator on a generated corpus, seeded with BenchmarkCorpus.SEED_WORD.
+ * The query without a fourth argument reads the corpus file every operation, the way TextGenerator runs it.
+ * The "one" and "all" modes run on models built once, so only generating k words is measured.
+ *
+ * @author Elijah Tolton and Canon Curtis
+ * @version 10/18/2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class QueryBenchmark {
+    @Param({"100000", "1000000"})
+    public int words;
+
+    @Param({"16", "1024"})
+    public int fanout;
+
+    @Param({"uniform", "zipf"})
+    public String distribution;
+
+    @Param({"10", "1000", "100000"})
+    public int k;
+
+    private String path;
+    private BigramModel model;
+    private NGramModel nGramModel;
+
+    /**
+     * Writes the corpus file and builds both models once per parameter combination.
+     */
+    @Setup
+    public void setUp() throws IOException {
+        path = BenchmarkCorpus.write(words, fanout, distribution).toString();
+        model = new TextGeneratorFunctor(path).getModel();
+        nGramModel = NGramModel.build(new WordTokenizer(InputSource.open(path)), 3);
+    }
+
+    /**
+     * Heap of the seed's successors, counted while reading the file.
+     */
+    @Benchmark
+    public BinaryMaxHeap<KeyValuePair> no4thParameter() throws IOException {
+        return new TextGeneratorFunctor(path, BenchmarkCorpus.SEED_WORD, Integer.toString(k)).no4thParameter();
+    }
+
+    /**
+     * k most probable successors of the seed, counted while reading the file.
+     */
+    @Benchmark
+    public List<KeyValuePair> kMostProbableWords() throws IOException {
+        return new TextGeneratorFunctor(path, BenchmarkCorpus.SEED_WORD, Integer.toString(k)).kMostProbableWords();
+    }
+
+    /**
+     * k words of the "one" mode.
+     */
+    @Benchmark
+    public List<String> fourthArgumentOne() {
+        return new TextGeneratorFunctor(model, BenchmarkCorpus.SEED_WORD, k, false).fourthArgumentOne();
+    }
+
+    /**
+     * k words of the "all" mode.
+     */
+    @Benchmark
+    public List<String> fourthArgumentAll() {
+        return new TextGeneratorFunctor(model, BenchmarkCorpus.SEED_WORD, k, true).fourthArgumentAll();
+    }
+
+    /**
+     * k words of the "one" mode of the three word model.
+     */
+    @Benchmark
+    public List<String> nGramOne() {
+        return nGramModel.generate(BenchmarkCorpus.SEED_WORD, k, false, new SplittableRandom(2420));
+    }
+
+    /**
+     * k words of the "all" mode of the three word model.
+     */
+    @Benchmark
+    public List<String> nGramAll() {
+        return nGramModel.generate(BenchmarkCorpus.SEED_WORD, k, true, new SplittableRandom(2420));
+    }
+}
@@ -0,0 +1,76 @@
+package comprehensive;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * JMH benchmarks of WordTokenizer over generated corpora held in memory, so only tokenizing is measured.
+ * Every operation tokenizes the whole corpus.
+ *
+ * @author Elijah Tolton and Canon Curtis
+ * @version 10/18/2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class TokenizerBenchmark {
+    @Param({"100000", "1000000"})
+    public int words;
+
+    @Param({"16", "1024"})
+    public int fanout;
+
+    @Param({"uniform", "zipf"})
+    public String distribution;
+
+    private byte[] text;
+
+    /**
+     * Generates the corpus once per parameter combination.
+     */
+    @Setup
+    public void setUp() {
+        text = BenchmarkCorpus.generate(words, fanout, distribution).getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Every word as an interned String, the way the seed query reads the text.
+     */
+    @Benchmark
+    public void nextWord(Blackhole blackhole) throws IOException {
+        WordTokenizer tokenizer = new WordTokenizer(new ByteArrayInputStream(text));
+        String word;
+        while ((word = tokenizer.nextWord()) != null)
+            blackhole.consume(word);
+    }
+
+    /**
+     * Every word as an id of a new Vocabulary, the way models are built.
+     */
+    @Benchmark
+    public Vocabulary nextId() throws IOException {
+        Vocabulary vocabulary = new Vocabulary();
+        WordTokenizer tokenizer = new WordTokenizer(new ByteArrayInputStream(text));
+        while (tokenizer.nextId(vocabulary) >= 0)
+            ;
+        return vocabulary;
+    }
+}
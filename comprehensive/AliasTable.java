@@ -0,0 +1,95 @@
+package comprehensive;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Picks an index at random with probability proportional to its weight in O(1), using
+ * Vose's alias method. Every column i holds its own index and one alias, and index i is kept
+ * when a uniform draw below total weight falls under threshold[i], otherwise alias[i] is used.
+ * Thresholds are whole numbers so the chances are exact, not rounded doubles.
+ *
+ * @author Elijah Tolton and Canon Curtis
+ * @version 10/18/2026
+ */
+public class AliasTable {
+    private final long[] threshold;
+    private final int[] alias;
+    private final long totalWeight;
+
+    /**
+     * Builds the table for the given positive weights.
+     * O(N)
+     *
+     * @param weights - weight of every index, e.g. occurrences of every successor
+     * @param from - first weight to use
+     * @param length - number of weights to use
+     */
+    public AliasTable(int[] weights, int from, int length) {
+        threshold = new long[length];
+        alias = new int[length];
+
+        long total = 0;
+        for (int i = 0; i < length; i++)
+            total += weights[from + i];
+        totalWeight = total;
+
+        //every weight scaled by length, an average column holds exactly totalWeight
+        long[] scaled = new long[length];
+        int[] small = new int[length];
+        int[] large = new int[length];
+        int smallSize = 0;
+        int largeSize = 0;
+        for (int i = 0; i < length; i++) {
+            scaled[i] = (long) weights[from + i] * length;
+            if (scaled[i] < totalWeight)
+                small[smallSize++] = i;
+            else
+                large[largeSize++] = i;
+        }
+
+        //fill each under-full column with part of an over-full one
+        while (smallSize > 0 && largeSize > 0) {
+            int less = small[--smallSize];
+            int more = large[--largeSize];
+            threshold[less] = scaled[less];
+            alias[less] = more;
+
+            scaled[more] -= totalWeight - scaled[less];
+            if (scaled[more] < totalWeight)
+                small[smallSize++] = more;
+            else
+                large[largeSize++] = more;
+        }
+
+        //whatever is left is exactly full
+        while (largeSize > 0) {
+            int i = large[--largeSize];
+            threshold[i] = totalWeight;
+            alias[i] = i;
+        }
+        while (smallSize > 0) {
+            int i = small[--smallSize];
+            threshold[i] = totalWeight;
+            alias[i] = i;
+        }
+    }
+
+    /**
+     * Returns a random index, each with probability weight / total weight.
+     * O(1)
+     *
+     * @param random - source of randomness
+     * @return - chosen index
+     */
+    public int sample(RandomGenerator random) {
+        int column = random.nextInt(threshold.length);
+        return random.nextLong(totalWeight) < threshold[column] ? column : alias[column];
+    }
+
+    /**
+     * Returns the number of indices.
+     */
+    public int size() {
+        return threshold.length;
+    }
+}
@@ -0,0 +1,145 @@
+package comprehensive;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Answers many queries against the same text file with a single pass over the file.
+ * When every query only asks for the k most probable words after its seed, only the words that
+ * follow one of the seeds are counted. If any query uses "one" or "all" the full model is built in that
+ * same pass. A compiled model file is loaded instead of read, and an index answers the seeds from their positions.
+ *
+ * @author Elijah Tolton and Canon Curtis
+ * @version 10/18/2026
+ */
+public class BatchQuery {
+    private final List<Query> queries;
+
+    /**
+     * Creates a batch of queries.
+     *
+     * @param queries - queries to answer, in output order
+     */
+    public BatchQuery(List<Query> queries) {
+        this.queries = queries;
+    }
+
+    /**
+     * Reads one query per line, skipping blank lines.
+     *
+     * @param queryPath - file of queries, "seed k [one|all]" on each line
+     * @return - batch of the queries in the file
+     * @throws IOException - if the file cannot be read
+     * @throws IllegalArgumentException - if a line is not a query
+     */
+    public static BatchQuery read(String queryPath) throws IOException {
+        ArrayList<Query> queries = new ArrayList<>();
+        try (BufferedReader in = new BufferedReader(new InputStreamReader(new FileInputStream(queryPath), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = in.readLine()) != null)
+                if (!line.isBlank())
+                    queries.add(Query.parse(line));
+        }
+        return new BatchQuery(queries);
+    }
+
+    /**
+     * Answers every query, writing one line per query in order.
+     * O(file size + B lg N + output)
+     *
+     * @param filePath - text file or compiled model
+     * @param out - where answers are written
+     * @throws IOException - if the file cannot be read or the answers cannot be written
+     */
+    public void answer(String filePath, Writer out) throws IOException {
+        BigramModel model = buildModel(filePath);
+        BufferedWriter writer = new BufferedWriter(out, 1 << 16);
+        for (Query query : queries) {
+            writer.write(query.answer(model));
+            writer.newLine();
+        }
+        writer.flush();
+    }
+
+    /**
+     * Makes the model that answers every query in one pass over the file.
+     */
+    private BigramModel buildModel(String filePath) throws IOException {
+        //any greedy or weighted walk can reach every word of the file
+        boolean seedsOnly = true;
+        for (Query query : queries)
+            if (query.getAllOrOne() != null)
+                seedsOnly = false;
+
+        File file = new File(filePath);
+        boolean plainFile = InputSource.isPlainFile(filePath);
+        //only the magic number is read, PositionalIndex is loaded when the file is an index
+        if (seedsOnly && plainFile && ModelFile.startsWith(file, PositionalIndex.MAGIC))
+            return countIndexSuccessors(filePath);
+        if (!seedsOnly || (plainFile && ModelFile.isModelFile(file)))
+            return new TextGeneratorFunctor(filePath).getModel();
+        return countSeedSuccessors(filePath);
+    }
+
+    /**
+     * Counts the words after each seed from the positions of the seed in an index, without reading the text.
+     * O(sum of the occurrences of the seeds)
+     *
+     * @param indexPath - index written by PositionalIndex
+     * @return - model whose rows are only the seeds
+     */
+    private BigramModel countIndexSuccessors(String indexPath) throws IOException {
+        PositionalIndex index = PositionalIndex.open(indexPath);
+        Vocabulary vocabulary = new Vocabulary();
+        for (Query query : queries)
+            vocabulary.idOf(query.getSeed());
+        int seedCount = vocabulary.size();
+
+        BigramTable table = new BigramTable();
+        for (int seed = 0; seed < seedCount; seed++)
+            for (KeyValuePair pair : index.successors(vocabulary.wordOf(seed)).values())
+                table.add(seed, vocabulary.idOf(pair.getWord()), pair.getOccurrence());
+        return new BigramModel(vocabulary, table);
+    }
+
+    /**
+     * Reads the file once and counts only the words that follow a seed. Seeds get the first ids of the
+     * vocabulary, so a word is a seed exactly when its id is below the number of distinct seeds.
+     * O(file size + S) where S is the number of counted pairs
+     *
+     * @param filePath - text file, .gz file or "-" for standard input
+     * @return - model whose rows are only the seeds
+     */
+    private BigramModel countSeedSuccessors(String filePath) throws IOException {
+        Vocabulary vocabulary = new Vocabulary();
+        for (Query query : queries)
+            vocabulary.idOf(query.getSeed());
+        int seedCount = vocabulary.size();
+
+        BigramTable table = new BigramTable();
+        try (WordTokenizer tokenizer = new WordTokenizer(InputSource.open(filePath))) {
+            if (tokenizer.nextToken()) {
+                int prev = find(vocabulary, tokenizer);
+                while (tokenizer.nextToken()) { //O(file size)
+                    //only words after a seed get an id
+                    int next = prev >= 0 && prev < seedCount
+                            ? vocabulary.idOf(tokenizer.wordBytes(), 0, tokenizer.wordLength(), tokenizer.wordHash())
+                            : find(vocabulary, tokenizer);
+                    if (prev >= 0 && prev < seedCount)
+                        table.increment(prev, next);
+                    prev = next;
+                }
+            }
+        }
+        return new BigramModel(vocabulary, table);
+    }
+
+    /**
+     * Returns the id of the tokenizer's current word, or -1 if it isn't in the vocabulary. No String is made.
+     */
+    private static int find(Vocabulary vocabulary, WordTokenizer tokenizer) {
+        return vocabulary.find(tokenizer.wordBytes(), 0, tokenizer.wordLength(), tokenizer.wordHash());
+    }
+}
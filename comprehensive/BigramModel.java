@@ -0,0 +1,387 @@
+package comprehensive;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Frozen model of words and their successor counts, grouped by previous word in three flat int arrays
+ * (compressed sparse rows). The successors of word id are successors[rowStart[id]] to
+ * successors[rowStart[id + 1] - 1] with matching occurrences in counts.
+ * The arrays are read through ModelRows, so OffHeapModel can keep the same rows outside the Java heap.
+ * <p>
+ * Every row is sorted from most to least occurrences, ties broken the same way as KeyValuePair.compareTo,
+ * so the most probable next word is the first of its row and the k most probable words are the first k.
+ * Nothing changes after construction, so no heap has to be built when the model is queried.
+ *
+ * @author Elijah Tolton and Canon Curtis
+ * @version 10/18/2026
+ */
+public class BigramModel {
+    private final Vocabulary vocabulary;
+    private final ModelRows rows;
+
+    //alias tables and successor arrays of recently queried rows
+    private volatile SuccessorCache cache = new SuccessorCache(SuccessorCache.DEFAULT_BUDGET);
+    //alias table of every row, set by buildAliasTables, bypasses the cache
+    private volatile AliasTable[] aliasTables;
+
+    /**
+     * Groups the pairs of a BigramTable by previous word and sorts every row by occurrences.
+     * O(V log V + B log N) where V is the number of distinct words, B is the number of distinct pairs
+     * and N is the length of the longest row
+     *
+     * @param vocabulary - words the ids of the table refer to
+     * @param table - counted pairs
+     */
+    public BigramModel(Vocabulary vocabulary, BigramTable table) {
+        this(vocabulary, table, vocabulary.size());
+    }
+
+    /**
+     * Groups the pairs of a BigramTable by their first id and sorts every row by occurrences. The first id
+     * of a pair doesn't have to be a word, NGramModel uses the ids of longer contexts as rows.
+     * O(V log V + R + B log N) where R is the number of rows
+     *
+     * @param vocabulary - words the second ids of the table refer to
+     * @param table - counted pairs
+     * @param rows - number of rows, larger than every first id of the table
+     */
+    @SuppressWarnings("try")
+    BigramModel(Vocabulary vocabulary, BigramTable table, int rows) {
+        this.vocabulary = vocabulary;
+        int[] rowStart = new int[rows + 1];
+        int[] successors = new int[table.size()];
+        int[] counts = new int[table.size()];
+
+        //count row lengths, then turn them into start positions
+        for (int slot = 0; slot < table.capacity(); slot++)
+            if (table.keyAt(slot) != BigramTable.EMPTY)
+                rowStart[BigramTable.prevOf(table.keyAt(slot)) + 1]++;
+        for (int id = 0; id < rows; id++)
+            rowStart[id + 1] += rowStart[id];
+
+        //place every pair in its row
+        int[] fill = new int[rows];
+        for (int slot = 0; slot < table.capacity(); slot++) {
+            long key = table.keyAt(slot);
+            if (key == BigramTable.EMPTY)
+                continue;
+            int prev = BigramTable.prevOf(key);
+            int position = rowStart[prev] + fill[prev]++;
+            successors[position] = BigramTable.nextOf(key);
+            counts[position] = table.countAt(slot);
+        }
+
+        try (Metrics.Phase phase = Metrics.start("sort rows")) {
+            sortRows(rowStart, successors, counts);
+        }
+        this.rows = new ArrayRows(rowStart, successors, counts);
+    }
+
+    /**
+     * Wraps arrays that are already grouped by previous word and sorted, used when reading a model file.
+     */
+    BigramModel(Vocabulary vocabulary, int[] rowStart, int[] successors, int[] counts) {
+        this(vocabulary, new ArrayRows(rowStart, successors, counts));
+    }
+
+    /**
+     * Wraps rows that are already grouped by previous word and sorted, wherever they are stored.
+     */
+    BigramModel(Vocabulary vocabulary, ModelRows rows) {
+        this.vocabulary = vocabulary;
+        this.rows = rows;
+    }
+
+    /**
+     * Sorts every row from most to least occurrences with a LongMaxHeap of packed keys.
+     * Equal occurrences put the alphabetically smaller word first, which is the larger KeyValuePair.
+     */
+    private void sortRows(int[] rowStart, int[] successors, int[] counts) {
+        //alphabetical rank of every word, compared as bytes so no String is made
+        int[] byWord = vocabulary.idsInWordOrder(); //O(V log V)
+        int[] rank = new int[byWord.length];
+        for (int r = 0; r < byWord.length; r++)
+            rank[byWord[r]] = r;
+
+        //heap sort (occurrences, rank) keys so larger keys are more probable words
+        LongMaxHeap heap = new LongMaxHeap();
+        long[] keys = new long[0];
+        for (int id = 0; id < rowStart.length - 1; id++) {
+            int start = rowStart[id];
+            int length = rowStart[id + 1] - start;
+            if (length < 2)
+                continue;
+            if (keys.length < length)
+                keys = new long[length];
+
+            for (int i = 0; i < length; i++)
+                keys[i] = LongMaxHeap.pack(counts[start + i], rank[successors[start + i]]);
+            heap.buildHeap(keys, length); //O(N)
+
+            //largest key first
+            for (int i = 0; i < length; i++) {
+                long key = heap.extractMax(); //O(log N)
+                counts[start + i] = LongMaxHeap.occurrenceOf(key);
+                successors[start + i] = byWord[LongMaxHeap.rankOf(key)];
+            }
+        }
+    }
+
+    /**
+     * Returns the words of this model.
+     */
+    Vocabulary vocabulary() {
+        return vocabulary;
+    }
+
+    /**
+     * Returns the id of word.
+     * O(1) average case
+     *
+     * @param word - word to look up
+     * @return - id of word, or -1 if it isn't in the model
+     */
+    public int find(String word) {
+        return vocabulary.find(word);
+    }
+
+    /**
+     * Returns the word with the given id.
+     */
+    public String wordOf(int id) {
+        return vocabulary.wordOf(id);
+    }
+
+    /**
+     * Returns the number of distinct words.
+     */
+    public int size() {
+        return vocabulary.size();
+    }
+
+    /**
+     * Returns the number of rows, the number of distinct words unless rows are contexts of an NGramModel.
+     */
+    public int rowCount() {
+        return rows.rowCount();
+    }
+
+    /**
+     * Returns the most probable word to follow the given word.
+     * O(1)
+     *
+     * @param id - id of previous word
+     * @return - id of most probable next word, or -1 if nothing follows it
+     */
+    public int mostLikely(int id) {
+        return successorCount(id) == 0 ? -1 : rows.successor(rows.rowStart(id));
+    }
+
+    /**
+     * Returns the k most probable words to follow the given word, most probable first.
+     * O(k) when the row is cached, a prefix of the sorted row, O(N) to cache it
+     *
+     * @param word - previous word
+     * @param k - number of words wanted
+     * @return - up to k words paired with their occurrences, empty if nothing follows the word.
+     *           The pairs are shared with the cache and must not be changed
+     */
+    public List<KeyValuePair> topK(String word, int k) {
+        ArrayList<KeyValuePair> out = new ArrayList<>();
+        int id = vocabulary.find(word);
+        if (id < 0 || successorCount(id) == 0)
+            return out;
+
+        //cached row, built the first time
+        KeyValuePair[] row = cache.successors(id, this::buildSuccessors);
+        out.addAll(Arrays.asList(row).subList(0, Math.min(k, row.length)));
+        return out;
+    }
+
+    /**
+     * Returns the number of distinct words that follow the given word.
+     * O(1)
+     *
+     * @param id - id of word
+     */
+    public int successorCount(int id) {
+        return rows.rowStart(id + 1) - rows.rowStart(id);
+    }
+
+    /**
+     * Returns the id of the i-th successor of the given word.
+     * O(1)
+     */
+    public int successor(int id, int i) {
+        return rows.successor(rows.rowStart(id) + i);
+    }
+
+    /**
+     * Returns how many times the i-th successor followed the given word.
+     * O(1)
+     */
+    public int count(int id, int i) {
+        return rows.count(rows.rowStart(id) + i);
+    }
+
+    /**
+     * Returns the alias table for sampling a successor of the given word by its occurrences,
+     * kept in the cache between calls. Tables are immutable, so two threads racing
+     * to build the same one only waste work.
+     * O(N) on a cache miss, O(1) after
+     *
+     * @param id - id of previous word, at least one word follows it
+     * @return - table whose sampled index i is the i-th successor of id
+     */
+    public AliasTable aliasTable(int id) {
+        AliasTable[] tables = aliasTables;
+        if (tables != null)
+            return tables[id];
+        return cache.aliasTable(id, this::buildAliasTable);
+    }
+
+    /**
+     * Builds the alias table of every word that has successors and keeps all of them outside the cache,
+     * so threads sampling the model afterwards only read it and never build or evict a table.
+     * O(B)
+     */
+    public void buildAliasTables() {
+        if (aliasTables != null)
+            return;
+        AliasTable[] tables = new AliasTable[rowCount()];
+        for (int id = 0; id < tables.length; id++)
+            if (successorCount(id) > 0)
+                tables[id] = buildAliasTable(id);
+        aliasTables = tables;
+    }
+
+    /**
+     * Replaces the cache of alias tables and successor arrays, e.g. with one of a different budget.
+     *
+     * @param cache - cache used by later queries
+     */
+    public void setCache(SuccessorCache cache) {
+        this.cache = cache;
+    }
+
+    /**
+     * Returns the cache of alias tables and successor arrays, with its hit, miss and eviction counts.
+     */
+    public SuccessorCache getCache() {
+        return cache;
+    }
+
+    /**
+     * Returns a model keeping only the most probable successors of every row: at most maxSuccessors of them,
+     * each with at least minCount occurrences. Rows are sorted, so every row keeps a prefix of itself.
+     * O(R + B)
+     *
+     * @param minCount - fewest occurrences a successor needs to be kept
+     * @param maxSuccessors - most successors kept per row
+     * @return - pruned model sharing this model's vocabulary, or this model if nothing is removed
+     */
+    public BigramModel prune(int minCount, int maxSuccessors) {
+        int rowCount = rowCount();
+        int[] rowStart = new int[rowCount + 1];
+        for (int id = 0; id < rowCount; id++) {
+            int kept = 0;
+            while (kept < Math.min(maxSuccessors, successorCount(id)) && count(id, kept) >= minCount)
+                kept++;
+            rowStart[id + 1] = rowStart[id] + kept;
+        }
+        if (rowStart[rowCount] == bigramCount())
+            return this;
+
+        int[] successors = new int[rowStart[rowCount]];
+        int[] counts = new int[successors.length];
+        for (int id = 0; id < rowCount; id++) {
+            for (int i = 0; i < rowStart[id + 1] - rowStart[id]; i++) {
+                successors[rowStart[id] + i] = successor(id, i);
+                counts[rowStart[id] + i] = count(id, i);
+            }
+        }
+        return new BigramModel(vocabulary, rowStart, successors, counts);
+    }
+
+    /**
+     * Returns the number of distinct word pairs.
+     */
+    public int bigramCount() {
+        return rows.rowStart(rowCount());
+    }
+
+    /**
+     * Returns the words that follow the given word paired with their occurrences, most probable first.
+     * O(N) where N is the number of successors
+     *
+     * @param word - previous word
+     * @return - array of successors, or null if the word is unknown or nothing follows it
+     */
+    public KeyValuePair[] successors(String word) {
+        int id = vocabulary.find(word);
+        if (id < 0 || successorCount(id) == 0)
+            return null;
+
+        //copy, the cached array is shared and a heap built from it would change it
+        return cache.successors(id, this::buildSuccessors).clone();
+    }
+
+    /**
+     * Makes the alias table of one row from its occurrences.
+     * O(N)
+     */
+    private AliasTable buildAliasTable(int id) {
+        int[] weights = new int[successorCount(id)];
+        for (int i = 0; i < weights.length; i++)
+            weights[i] = count(id, i);
+        return new AliasTable(weights, 0, weights.length);
+    }
+
+    /**
+     * Makes the successors of one row paired with their occurrences, most probable first.
+     * O(N)
+     */
+    private KeyValuePair[] buildSuccessors(int id) {
+        KeyValuePair[] arr = new KeyValuePair[successorCount(id)];
+        for (int i = 0; i < arr.length; i++)
+            arr[i] = new KeyValuePair(vocabulary.wordOf(successor(id, i)), count(id, i));
+        return arr;
+    }
+
+    /**
+     * Rows held in int arrays on the Java heap.
+     */
+    private static class ArrayRows implements ModelRows {
+        private final int[] rowStart;
+        private final int[] successors;
+        private final int[] counts;
+
+        private ArrayRows(int[] rowStart, int[] successors, int[] counts) {
+            this.rowStart = rowStart;
+            this.successors = successors;
+            this.counts = counts;
+        }
+
+        @Override
+        public int rowCount() {
+            return rowStart.length - 1;
+        }
+
+        @Override
+        public int rowStart(int row) {
+            return rowStart[row];
+        }
+
+        @Override
+        public int successor(int position) {
+            return successors[position];
+        }
+
+        @Override
+        public int count(int position) {
+            return counts[position];
+        }
+    }
+}
@@ -0,0 +1,318 @@
+package comprehensive;
+
+import java.util.Arrays;
+
+/**
+ * Counts word pairs while a model is being built. Each pair of word ids is packed into one long
+ * key, (previous id, next id), and counts live in a parallel int array, so there is no object per pair.
+ * Open addressing with linear probing.
+ * <p>
+ * A memory budget can be set. When the table is full and doubling it would go over the budget, a sweep
+ * removes the pairs with the lowest counts instead, so the table never grows past the budget.
+ * A swept pair seen again counts from zero, so a count is low by at most the prune floor.
+ *
+ * @author Elijah Tolton and Canon Curtis
+ * @version 10/18/2026
+ */
+public class BigramTable {
+    //ids are never negative so no real key is all ones
+    public static final long EMPTY = -1L;
+
+    //bytes per slot, one long key and one int count
+    private static final int SLOT_BYTES = 12;
+    //counts above this share the last bucket when choosing what a sweep removes
+    private static final int MAX_SWEEP_COUNT = 1024;
+
+    private long[] keys;
+    private int[] counts;
+    private int size;
+
+    private long memoryBudget = Long.MAX_VALUE;
+    //every pair removed by a sweep had at most this count
+    private int pruneFloor;
+    private int sweeps;
+
+    /**
+     * Creates an empty table.
+     */
+    public BigramTable() {
+        this(1024);
+    }
+
+    /**
+     * Creates an empty table with room for about the given number of pairs.
+     *
+     * @param expectedPairs - number of pairs expected
+     */
+    public BigramTable(int expectedPairs) {
+        int capacity = 16;
+        while (capacity * 3 < expectedPairs * 4)
+            capacity *= 2;
+        keys = new long[capacity];
+        counts = new int[capacity];
+        Arrays.fill(keys, EMPTY);
+    }
+
+    /**
+     * Packs a pair of word ids into one key.
+     *
+     * @param prev - id of previous word
+     * @param next - id of word following it
+     * @return - key of the pair
+     */
+    public static long pack(int prev, int next) {
+        return ((long) prev << 32) | (next & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Returns the previous word id of a packed key.
+     */
+    public static int prevOf(long key) {
+        return (int) (key >>> 32);
+    }
+
+    /**
+     * Returns the next word id of a packed key.
+     */
+    public static int nextOf(long key) {
+        return (int) key;
+    }
+
+    /**
+     * Adds one occurrence of next after prev.
+     * O(1) average case
+     *
+     * @param prev - id of previous word
+     * @param next - id of word following it
+     */
+    public void increment(int prev, int next) {
+        add(prev, next, 1);
+    }
+
+    /**
+     * Adds count occurrences of next after prev.
+     * O(1) average case
+     *
+     * @param prev - id of previous word
+     * @param next - id of word following it
+     * @param count - occurrences to add
+     */
+    public void add(int prev, int next, int count) {
+        long key = pack(prev, next);
+        int mask = keys.length - 1;
+        int i = hash(key) & mask;
+        while (keys[i] != EMPTY) {
+            if (keys[i] == key) {
+                counts[i] += count;
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+
+        keys[i] = key;
+        counts[i] = count;
+        //keep table at most 3/4 full
+        if (++size * 4 > keys.length * 3) {
+            if (keys.length * 2L * SLOT_BYTES <= memoryBudget)
+                resize();
+            else
+                sweep();
+            //only pairs with huge counts left, going over the budget beats a full table
+            if (size * 4 > keys.length * 3)
+                resize();
+        }
+    }
+
+    /**
+     * Stores value for the pair if the pair isn't in the table yet, so the table can be used as a
+     * map from pairs of ids to ids. Values must be positive since 0 means absent to get().
+     * O(1) average case
+     *
+     * @param prev - first id of the pair
+     * @param next - second id of the pair
+     * @param value - positive value to store
+     * @return - value already stored for the pair, or 0 if value was stored
+     */
+    public int putIfAbsent(int prev, int next, int value) {
+        int existing = get(prev, next);
+        if (existing == 0)
+            add(prev, next, value);
+        return existing;
+    }
+
+    /**
+     * Returns how many times next followed prev.
+     * O(1) average case
+     *
+     * @param prev - id of previous word
+     * @param next - id of word following it
+     * @return - occurrences of the pair, 0 if never seen
+     */
+    public int get(int prev, int next) {
+        long key = pack(prev, next);
+        int mask = keys.length - 1;
+        int i = hash(key) & mask;
+        while (keys[i] != EMPTY) {
+            if (keys[i] == key)
+                return counts[i];
+            i = (i + 1) & mask;
+        }
+        return 0;
+    }
+
+    /**
+     * Returns the number of distinct pairs.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the number of slots, used with keyAt and countAt to visit every pair.
+     */
+    public int capacity() {
+        return keys.length;
+    }
+
+    /**
+     * Returns the key in the given slot, EMPTY if there is none.
+     */
+    public long keyAt(int slot) {
+        return keys[slot];
+    }
+
+    /**
+     * Returns the count in the given slot.
+     */
+    public int countAt(int slot) {
+        return counts[slot];
+    }
+
+    /**
+     * Caps the memory of the table. Once doubling the table would go over the budget, pairs with the
+     * lowest counts are removed in sweeps instead, losing rare pairs.
+     *
+     * @param bytes - most bytes the table may use, at least the size it already has
+     */
+    public void setMemoryBudget(long bytes) {
+        memoryBudget = bytes;
+    }
+
+    /**
+     * Returns the bytes used by the table's arrays.
+     */
+    public long memoryBytes() {
+        return (long) keys.length * SLOT_BYTES;
+    }
+
+    /**
+     * Returns the largest count of any pair removed by a sweep, 0 if nothing was swept.
+     * Any pair missing from the table occurred at most this many times while it was being counted.
+     */
+    public int getPruneFloor() {
+        return pruneFloor;
+    }
+
+    /**
+     * Returns how many sweeps the memory budget forced.
+     */
+    public int getSweeps() {
+        return sweeps;
+    }
+
+    /**
+     * Removes every pair that occurred fewer than minCount times, without making new arrays.
+     * O(capacity)
+     *
+     * @param minCount - fewest occurrences a pair needs to stay
+     * @return - number of pairs removed
+     */
+    public int removeBelow(int minCount) {
+        int before = size;
+        int mask = keys.length - 1;
+
+        //start after an empty slot so no run of full slots wraps around the start
+        int start = 0;
+        while (keys[start] != EMPTY)
+            start++;
+
+        for (int j = 1; j <= keys.length; j++) {
+            int i = (start + j) & mask;
+            long key = keys[i];
+            if (key == EMPTY)
+                continue;
+            int count = counts[i];
+            keys[i] = EMPTY;
+            if (count < minCount) {
+                size--;
+                continue;
+            }
+
+            //put back in the first free slot from its home, never past where it was
+            int k = hash(key) & mask;
+            while (keys[k] != EMPTY)
+                k = (k + 1) & mask;
+            keys[k] = key;
+            counts[k] = count;
+        }
+        return before - size;
+    }
+
+    /**
+     * Removes the pairs with the lowest counts until the table is at most half of its 3/4 limit,
+     * so the next sweep is many pairs away.
+     * O(capacity)
+     */
+    private void sweep() {
+        //pairs per count, with large counts in the last bucket
+        int[] histogram = new int[MAX_SWEEP_COUNT + 1];
+        for (int i = 0; i < keys.length; i++)
+            if (keys[i] != EMPTY)
+                histogram[Math.min(counts[i], MAX_SWEEP_COUNT)]++;
+
+        //smallest count that has to be removed to get down to the target
+        int target = keys.length * 3 / 8;
+        int removed = 0;
+        int floor = 0;
+        while (floor < MAX_SWEEP_COUNT && size - removed > target)
+            removed += histogram[++floor];
+
+        removeBelow(floor + 1);
+        pruneFloor = Math.max(pruneFloor, floor);
+        sweeps++;
+    }
+
+    /**
+     * Doubles the table and reinserts every pair.
+     */
+    private void resize() {
+        long[] oldKeys = keys;
+        int[] oldCounts = counts;
+        keys = new long[oldKeys.length * 2];
+        counts = new int[oldKeys.length * 2];
+        Arrays.fill(keys, EMPTY);
+
+        int mask = keys.length - 1;
+        for (int j = 0; j < oldKeys.length; j++) {
+            if (oldKeys[j] == EMPTY)
+                continue;
+            int i = hash(oldKeys[j]) & mask;
+            while (keys[i] != EMPTY)
+                i = (i + 1) & mask;
+            keys[i] = oldKeys[j];
+            counts[i] = oldCounts[j];
+        }
+    }
+
+    /**
+     * Mixes all 64 bits of a key so consecutive ids spread over the table.
+     */
+    static int hash(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return (int) key;
+    }
+}
@@ -79,6 +79,8 @@ public class BinaryMaxHeap<T> implements PriorityQueue<T> {
      * @return - basic array representing a BinaryMaxHeap
      */
     public void buildHeap(List<? extends T> list){
+        if(Metrics.ENABLED)
+            Metrics.count(Metrics.Counter.HEAP_BUILDS);
         binMaxHeapData = (T[]) list.toArray(binMaxHeapData);
         size = list.size();
 
@@ -95,6 +97,8 @@ public class BinaryMaxHeap<T> implements PriorityQueue<T> {
      * @return - basic array representing a BinaryMaxHeap
      */
     public void buildHeap(T[] arr){
+        if(Metrics.ENABLED)
+            Metrics.count(Metrics.Counter.HEAP_BUILDS);
         binMaxHeapData = arr;
         size = arr.length;
 
@@ -168,6 +172,8 @@ public class BinaryMaxHeap<T> implements PriorityQueue<T> {
      */
     @Override
     public void add(T item) {
+        if(Metrics.ENABLED)
+            Metrics.count(Metrics.Counter.HEAP_ADDS);
         //number of elements is greater than capacity
         if(size >= capacity)
             resize();
@@ -230,6 +236,8 @@ public class BinaryMaxHeap<T> implements PriorityQueue<T> {
      */
     @Override
     public T extractMax() throws NoSuchElementException {
+        if(Metrics.ENABLED)
+            Metrics.count(Metrics.Counter.HEAP_EXTRACTS);
         //check if empty
         if(size == 0)
             throw new NoSuchElementException("PriorityQueue is empty");
@@ -245,6 +253,27 @@ public class BinaryMaxHeap<T> implements PriorityQueue<T> {
         return maxValue;
     }
 
+    /**
+     * Replaces the maximum item with the given item and returns the old maximum.
+     * Same as extractMax followed by add, with a single percolation.
+     * O(log N)
+     *
+     * @param item - item to add
+     * @return the old maximum item
+     * @throws NoSuchElementException if this priority queue is empty
+     */
+    public T replaceMax(T item) throws NoSuchElementException {
+        if(Metrics.ENABLED)
+            Metrics.count(Metrics.Counter.HEAP_REPLACES);
+        if(size == 0)
+            throw new NoSuchElementException("PriorityQueue is empty");
+
+        T maxValue = binMaxHeapData[0];
+        binMaxHeapData[0] = item;
+        percolateDown(0);
+        return maxValue;
+    }
+
     /**
      * Returns the number of items in this priority queue.
      * O(1)
@@ -0,0 +1,142 @@
+package comprehensive;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Words output by the "one" mode, found without walking all k steps. The most probable next word
+ * only depends on the current word, so once a word repeats the output cycles forever. The path is
+ * followed until the first repeat, recording the words before the cycle (the prefix) and one period
+ * of the cycle, and any later word is found by index arithmetic.
+ * Time and memory are proportional to the prefix plus the period, not to k.
+ *
+ * @author Elijah Tolton and Canon Curtis
+ * @version 10/18/2026
+ */
+public class GreedyPath {
+    private final BigramModel model;
+    private final String seed;
+    //word ids of the prefix followed by one period of the cycle, -1 stands for a seed not in the model
+    private final int[] path;
+    private final int prefixLength;
+    private final int period;
+
+    /**
+     * Follows the most probable word from the seed until a word repeats.
+     * O(prefix + period) average case
+     *
+     * @param model - model to follow
+     * @param seed - first word, output again whenever a word has no successors
+     */
+    public GreedyPath(BigramModel model, String seed) {
+        this.model = model;
+        this.seed = seed;
+        int seedId = model.find(seed);
+
+        //index + 1 in path of every word visited, keyed by (0, word id)
+        BigramTable visited = new BigramTable();
+        int[] steps = new int[16];
+        int length = 0;
+        int curr = seedId;
+        int firstIndex;
+
+        while (true) {
+            //a seed not in the model repeats itself
+            firstIndex = curr < 0 ? (length > 0 ? 1 : 0) : visited.putIfAbsent(0, curr, length + 1);
+            if (firstIndex != 0)
+                break;
+
+            if (length == steps.length)
+                steps = Arrays.copyOf(steps, length * 2);
+            steps[length++] = curr;
+
+            //most probable word, or start over at seed
+            int next = curr < 0 ? -1 : model.mostLikely(curr); //O(1)
+            curr = next < 0 ? seedId : next;
+        }
+
+        path = Arrays.copyOf(steps, length);
+        prefixLength = firstIndex - 1;
+        period = length - prefixLength;
+    }
+
+    /**
+     * Returns the number of words before the cycle starts.
+     */
+    public int getPrefixLength() {
+        return prefixLength;
+    }
+
+    /**
+     * Returns the number of words in one period of the cycle.
+     */
+    public int getPeriod() {
+        return period;
+    }
+
+    /**
+     * Returns the word id at the given index of the output, -1 if it is a seed not in the model.
+     * O(1)
+     *
+     * @param index - index of output word, 0 is the seed
+     */
+    public int idAt(long index) {
+        if (index < prefixLength)
+            return path[(int) index];
+        return path[prefixLength + (int) ((index - prefixLength) % period)];
+    }
+
+    /**
+     * Returns the word at the given index of the output.
+     * O(1)
+     *
+     * @param index - index of output word, 0 is the seed
+     */
+    public String wordAt(long index) {
+        int id = idAt(index);
+        return id < 0 ? seed : model.wordOf(id);
+    }
+
+    /**
+     * Writes the first k words of the output. One period of the cycle is turned into bytes once
+     * and then written as a whole as many times as needed.
+     * O(prefix + period) work besides writing the output
+     *
+     * @param out - where words are written
+     * @param k - number of words to write
+     * @throws IOException - if out cannot be written
+     */
+    public void write(WordWriter out, long k) throws IOException {
+        long written = 0;
+        for (; written < k && written < prefixLength; written++)
+            writeWord(out, written);
+        if (written == k)
+            return;
+
+        //whole periods
+        ByteArrayOutputStream cycle = new ByteArrayOutputStream();
+        for (int i = 0; i < period; i++)
+            cycle.write(WordWriter.encode(wordAt(prefixLength + i)));
+        byte[] cycleBytes = cycle.toByteArray();
+        for (long periods = (k - written) / period; periods > 0; periods--) {
+            out.write(cycleBytes, 0, cycleBytes.length);
+            written += period;
+        }
+
+        //part of the last period
+        for (; written < k; written++)
+            writeWord(out, written);
+    }
+
+    /**
+     * Writes the word at the given index of the output.
+     */
+    private void writeWord(WordWriter out, long index) throws IOException {
+        int id = idAt(index);
+        if (id < 0)
+            out.write(seed);
+        else
+            out.write(id);
+    }
+}
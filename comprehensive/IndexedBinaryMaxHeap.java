@@ -0,0 +1,220 @@
+package comprehensive;
+
+import java.util.Comparator;
+import java.util.NoSuchElementException;
+
+/**
+ * BinaryMaxHeap that remembers where every item sits in the backing array, so an item whose key
+ * changed while in the heap can be moved to its new place in O(log N) instead of being removed and added.
+ * Every item is an Entry that holds its own index in the backing array, so finding it is a field read
+ * and moving it boxes nothing. An item can be in only one heap at a time.
+ *
+ * @author Elijah Tolton and Canon Curtis
+ * @version 10/18/2026
+ * @param <T> - object in node
+ */
+public class IndexedBinaryMaxHeap<T extends IndexedBinaryMaxHeap.Entry> implements PriorityQueue<T> {
+    private T[] data;
+    private int size;
+    private final Comparator<? super T> cmp;
+
+    /**
+     * Item that can sit in an IndexedBinaryMaxHeap, which keeps the item's index in the backing array here.
+     */
+    public static class Entry {
+        //index in the backing array of the heap holding this entry, -1 when in none
+        int heapIndex = -1;
+    }
+
+    /**
+     * Creates an empty heap ordered by the given Comparator.
+     *
+     * @param cmp - Comparator that orders elements of T
+     */
+    public IndexedBinaryMaxHeap(Comparator<? super T> cmp) {
+        this.cmp = cmp;
+        data = newArray(16);
+    }
+
+    /**
+     * Adds the given item to this priority queue.
+     * O(log N)
+     *
+     * @param item - item not already in the heap
+     * @throws IllegalArgumentException - if the item is already in the heap
+     */
+    @Override
+    public void add(T item) {
+        if (Metrics.ENABLED)
+            Metrics.count(Metrics.Counter.HEAP_ADDS);
+        if (item.heapIndex >= 0)
+            throw new IllegalArgumentException("item is already in a heap");
+        if (size == data.length) {
+            T[] temp = newArray(data.length * 2);
+            System.arraycopy(data, 0, temp, 0, size);
+            data = temp;
+        }
+        place(item, size++);
+        percolateUp(size - 1);
+    }
+
+    /**
+     * Returns true if the item is in the heap.
+     * O(1)
+     */
+    public boolean contains(T item) {
+        int i = item.heapIndex;
+        return i >= 0 && i < size && data[i] == item;
+    }
+
+    /**
+     * Moves an item whose key changed to its new place, up if it grew and down if it shrank.
+     * O(log N)
+     *
+     * @param item - item in the heap
+     * @throws NoSuchElementException - if the item is not in the heap
+     */
+    public void update(T item) {
+        if (Metrics.ENABLED)
+            Metrics.count(Metrics.Counter.HEAP_UPDATES);
+        if (!contains(item))
+            throw new NoSuchElementException("item is not in the heap");
+        percolateDown(percolateUp(item.heapIndex));
+    }
+
+    /**
+     * Returns, but does not remove, the maximum item this priority queue.
+     * O(1)
+     *
+     * @return the maximum item
+     * @throws NoSuchElementException if this priority queue is empty
+     */
+    @Override
+    public T peek() throws NoSuchElementException {
+        if (size == 0)
+            throw new NoSuchElementException("Priority Queue is empty");
+        return data[0];
+    }
+
+    /**
+     * Returns and removes the maximum item this priority queue.
+     * O(log N)
+     *
+     * @return the maximum item
+     * @throws NoSuchElementException if this priority queue is empty
+     */
+    @Override
+    public T extractMax() throws NoSuchElementException {
+        if (Metrics.ENABLED)
+            Metrics.count(Metrics.Counter.HEAP_EXTRACTS);
+        if (size == 0)
+            throw new NoSuchElementException("PriorityQueue is empty");
+
+        //move last item to the root and percolate it down
+        T maxValue = data[0];
+        maxValue.heapIndex = -1;
+        size--;
+        if (size > 0) {
+            place(data[size], 0);
+            percolateDown(0);
+        }
+        data[size] = null;
+        return maxValue;
+    }
+
+    /**
+     * Returns the number of items in this priority queue.
+     * O(1)
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns true if this priority queue is empty, false otherwise.
+     * O(1)
+     */
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Empties this priority queue of items.
+     * O(N)
+     */
+    @Override
+    public void clear() {
+        for (int i = 0; i < size; i++)
+            data[i].heapIndex = -1;
+        data = newArray(16);
+        size = 0;
+    }
+
+    /**
+     * Creates and returns an array of the items in this priority queue,
+     * in the same order they appear in the backing array, root first.
+     * O(N)
+     */
+    @Override
+    public Object[] toArray() {
+        Object[] result = new Object[size];
+        System.arraycopy(data, 0, result, 0, size);
+        return result;
+    }
+
+    /**
+     * Puts an item at an index of the backing array and records the index.
+     */
+    private void place(T item, int i) {
+        data[i] = item;
+        item.heapIndex = i;
+    }
+
+    /**
+     * Makes a backing array. T erases to Entry, so an Entry[] is what a T[] is at run time, and only Ts are
+     * ever stored in it.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T extends Entry> T[] newArray(int length) {
+        return (T[]) new Entry[length];
+    }
+
+    /**
+     * Moves the item at index i up while it is greater than its parent.
+     *
+     * @return - final index of the item
+     */
+    private int percolateUp(int i) {
+        T item = data[i];
+        while (i > 0) {
+            int parent = (i - 1) / 2;
+            if (cmp.compare(item, data[parent]) <= 0)
+                break;
+            place(data[parent], i);
+            i = parent;
+        }
+        place(item, i);
+        return i;
+    }
+
+    /**
+     * Moves the item at index i down while it is less than its greater child.
+     */
+    private void percolateDown(int i) {
+        T item = data[i];
+        while (true) {
+            int left = 2 * i + 1;
+            if (left >= size)
+                break;
+            int right = left + 1;
+            int greaterChild = right < size && cmp.compare(data[right], data[left]) > 0 ? right : left;
+            if (cmp.compare(item, data[greaterChild]) >= 0)
+                break;
+            place(data[greaterChild], i);
+            i = greaterChild;
+        }
+        place(item, i);
+    }
+}
@@ -0,0 +1,234 @@
+package comprehensive;
+
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Opens the text read by WordTokenizer, so every input is just an InputStream of UTF-8 bytes.
+ * <ul>
+ *     <li>"-" is standard input.</li>
+ *     <li>A path ending in ".gz" is decompressed on its own thread while the words are read.</li>
+ *     <li>Any other path is memory mapped with FileChannel.map, files over 1 GB are mapped one piece at a time.</li>
+ * </ul>
+ *
+ * @author Elijah Tolton and Canon Curtis
+ * @version 10/18/2026
+ */
+public class InputSource {
+    //path that stands for standard input
+    public static final String STDIN = "-";
+
+    //largest piece of a file mapped at once, a MappedByteBuffer holds at most 2^31 - 1 bytes
+    private static final long MAX_MAPPING = 1L << 30;
+    //decompressed bytes handed from the decompressing thread at once
+    private static final int BLOCK_SIZE = 1 << 18;
+    //blocks decompressed ahead of the reader
+    private static final int BLOCKS_AHEAD = 8;
+
+    /**
+     * Opens the given input.
+     *
+     * @param path - "-" for standard input, a .gz file or a plain file
+     * @return - stream of the uncompressed bytes
+     * @throws FileNotFoundException - if the file does not exist
+     * @throws IOException - if the file cannot be opened
+     */
+    public static InputStream open(String path) throws IOException {
+        if (path.equals(STDIN))
+            return System.in;
+        if (path.endsWith(".gz"))
+            return new GzipInputStream(new FileInputStream(path));
+
+        try {
+            FileChannel channel = FileChannel.open(Path.of(path), StandardOpenOption.READ);
+            return new MappedInputStream(channel, 0, channel.size(), true);
+        } catch (NoSuchFileException e) {
+            throw new FileNotFoundException(path + " (No such file or directory)");
+        }
+    }
+
+    /**
+     * Returns true if the path is a plain file that can be read at any position,
+     * as needed to check for a compiled model or to split the file between threads.
+     *
+     * @param path - input path
+     */
+    public static boolean isPlainFile(String path) {
+        return !path.equals(STDIN) && !path.endsWith(".gz");
+    }
+
+    /**
+     * Maps one byte range of an open channel. Closing the stream leaves the channel open,
+     * so many threads can each read their own range of the same channel.
+     *
+     * @param channel - file to read
+     * @param start - first byte of the range
+     * @param end - one past the last byte of the range
+     * @return - stream of the bytes in the range
+     */
+    static InputStream mapRange(FileChannel channel, long start, long end) {
+        return new MappedInputStream(channel, start, end, false);
+    }
+
+    /**
+     * InputStream over mapped pieces of a file. Bytes are copied straight out of the page cache
+     * with no read system call per buffer.
+     */
+    private static class MappedInputStream extends InputStream {
+        private final FileChannel channel;
+        private final boolean ownsChannel;
+        private final long end;
+        //file position of the start of the next piece to map
+        private long nextMapping;
+        private MappedByteBuffer mapping;
+
+        private MappedInputStream(FileChannel channel, long start, long end, boolean ownsChannel) {
+            this.channel = channel;
+            this.nextMapping = start;
+            this.end = end;
+            this.ownsChannel = ownsChannel;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (!hasRemaining())
+                return -1;
+            return mapping.get() & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0)
+                return 0;
+            if (!hasRemaining())
+                return -1;
+            int read = Math.min(len, mapping.remaining());
+            mapping.get(b, off, read);
+            return read;
+        }
+
+        /**
+         * Maps the next piece when the current one is used up.
+         *
+         * @return - false at the end of the range
+         */
+        private boolean hasRemaining() throws IOException {
+            if (mapping != null && mapping.hasRemaining())
+                return true;
+            if (nextMapping >= end)
+                return false;
+            long size = Math.min(MAX_MAPPING, end - nextMapping);
+            mapping = channel.map(FileChannel.MapMode.READ_ONLY, nextMapping, size);
+            nextMapping += size;
+            return true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            mapping = null;
+            if (ownsChannel)
+                channel.close();
+        }
+    }
+
+    /**
+     * InputStream of a gzip file decompressed on a separate thread, which stays up to
+     * BLOCKS_AHEAD blocks ahead of the reader so decompressing and tokenizing overlap.
+     */
+    private static class GzipInputStream extends InputStream {
+        //block marking the end of the input or an error
+        private static final byte[] END = new byte[0];
+
+        private final BlockingQueue<byte[]> blocks = new ArrayBlockingQueue<>(BLOCKS_AHEAD);
+        private final Thread decompressor;
+        private volatile IOException failure;
+        private byte[] block = new byte[0];
+        private int position;
+
+        private GzipInputStream(InputStream compressed) {
+            decompressor = Thread.ofPlatform().daemon().name("gzip-input").start(() -> decompress(compressed));
+        }
+
+        /**
+         * Body of the decompressing thread.
+         */
+        private void decompress(InputStream compressed) {
+            try (InputStream in = new GZIPInputStream(compressed, 1 << 16)) {
+                while (true) {
+                    byte[] next = new byte[BLOCK_SIZE];
+                    int filled = in.readNBytes(next, 0, BLOCK_SIZE);
+                    if (filled == 0)
+                        break;
+                    blocks.put(filled == BLOCK_SIZE ? next : Arrays.copyOf(next, filled));
+                }
+            } catch (IOException e) {
+                failure = e;
+            } catch (InterruptedException e) {
+                //reader closed the stream
+                return;
+            }
+            try {
+                blocks.put(END);
+            } catch (InterruptedException ignored) {
+            }
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (!hasRemaining())
+                return -1;
+            return block[position++] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0)
+                return 0;
+            if (!hasRemaining())
+                return -1;
+            int read = Math.min(len, block.length - position);
+            System.arraycopy(block, position, b, off, read);
+            position += read;
+            return read;
+        }
+
+        /**
+         * Waits for the next block when the current one is used up.
+         *
+         * @return - false at the end of the input
+         * @throws IOException - if the file could not be decompressed
+         */
+        private boolean hasRemaining() throws IOException {
+            while (block != END && position == block.length) {
+                try {
+                    block = blocks.take();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("interrupted while decompressing");
+                }
+                position = 0;
+            }
+            if (block == END && failure != null)
+                throw failure;
+            return block != END;
+        }
+
+        @Override
+        public void close() {
+            decompressor.interrupt();
+            block = END;
+        }
+    }
+}
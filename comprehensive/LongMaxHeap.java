@@ -0,0 +1,220 @@
+package comprehensive;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * BinaryMaxHeap of primitive longs, for (occurrence, word) keys packed into one long.
+ * Has the same operations as PriorityQueue without boxing, a Comparator or pointer chasing:
+ * keys are compared with a single long comparison.
+ * <p>
+ * pack(occurrence, rank) puts the occurrence in the high 32 bits and the inverted alphabetical
+ * rank of the word in the low 32 bits, so a larger key is a larger KeyValuePair: more occurrences
+ * first, then the alphabetically smaller word. Occurrences are unsigned, up to 2^32 - 1, and the sign bit
+ * of the key is flipped so the signed comparison of keys still puts 2^31 occurrences above 2^31 - 1.
+ *
+ * @author Elijah Tolton and Canon Curtis
+ * @version 10/18/2026
+ */
+public class LongMaxHeap {
+
+    private long[] heapData;
+    private int size;
+
+    /**
+     * Default constructor used to create an empty heap.
+     */
+    public LongMaxHeap() {
+        heapData = new long[26];
+        size = 0;
+    }
+
+    /**
+     * Packs an occurrence and a word's alphabetical rank into a key.
+     *
+     * @param occurrence - number of occurrences, read as unsigned so counts past 2^31 - 1 still order correctly
+     * @param rank - non-negative alphabetical rank of the word, 0 is first
+     * @return - key ordered like KeyValuePair.compareTo
+     */
+    public static long pack(int occurrence, int rank) {
+        return (((long) occurrence << 32) | (~rank & 0xFFFFFFFFL)) ^ Long.MIN_VALUE;
+    }
+
+    /**
+     * Returns the occurrence of a packed key, the unsigned bits given to pack.
+     */
+    public static int occurrenceOf(long key) {
+        return (int) ((key ^ Long.MIN_VALUE) >>> 32);
+    }
+
+    /**
+     * Returns the alphabetical rank of a packed key.
+     */
+    public static int rankOf(long key) {
+        return ~(int) key;
+    }
+
+    /**
+     * Makes this heap hold the first length keys of arr, reusing arr as the backing array.
+     * O(N) runtime, faster than individually inserting all elements.
+     *
+     * @param arr - keys, reordered in place
+     * @param length - number of keys of arr to use
+     */
+    public void buildHeap(long[] arr, int length) {
+        heapData = arr;
+        size = length;
+
+        for (int i = (size / 2) - 1; i >= 0; i--)
+            percolateDown(i);
+    }
+
+    /**
+     * Makes this heap hold every key of arr, reusing arr as the backing array.
+     * O(N)
+     *
+     * @param arr - keys, reordered in place
+     */
+    public void buildHeap(long[] arr) {
+        buildHeap(arr, arr.length);
+    }
+
+    /**
+     * Adds the given key to this heap.
+     * O(1) in the average case, O(log N) in the worst case
+     *
+     * @param key - key to add
+     */
+    public void add(long key) {
+        if (size == heapData.length)
+            heapData = Arrays.copyOf(heapData, Math.max(26, size * 2));
+
+        heapData[size] = key;
+        size++;
+
+        //find correct spot
+        int i = size - 1;
+        while (i > 0 && heapData[i] > heapData[(i - 1) / 2]) {
+            swap(i, (i - 1) / 2);
+            i = (i - 1) / 2;
+        }
+    }
+
+    /**
+     * Returns, but does not remove, the maximum key.
+     * O(1)
+     *
+     * @return the maximum key
+     * @throws NoSuchElementException if this heap is empty
+     */
+    public long peek() throws NoSuchElementException {
+        if (size == 0)
+            throw new NoSuchElementException("Priority Queue is empty");
+        return heapData[0];
+    }
+
+    /**
+     * Returns and removes the maximum key.
+     * O(log N)
+     *
+     * @return the maximum key
+     * @throws NoSuchElementException if this heap is empty
+     */
+    public long extractMax() throws NoSuchElementException {
+        if (size == 0)
+            throw new NoSuchElementException("PriorityQueue is empty");
+
+        //swap max with last element
+        long maxValue = heapData[0];
+        heapData[0] = heapData[size - 1];
+        size--;
+
+        //percolate and return
+        percolateDown(0);
+        return maxValue;
+    }
+
+    /**
+     * Replaces the maximum key with the given key and returns the old maximum.
+     * O(log N)
+     *
+     * @param key - key to add
+     * @return the old maximum key
+     * @throws NoSuchElementException if this heap is empty
+     */
+    public long replaceMax(long key) throws NoSuchElementException {
+        if (size == 0)
+            throw new NoSuchElementException("PriorityQueue is empty");
+
+        long maxValue = heapData[0];
+        heapData[0] = key;
+        percolateDown(0);
+        return maxValue;
+    }
+
+    /**
+     * Returns the number of keys in this heap.
+     * O(1)
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns true if this heap is empty, false otherwise.
+     * O(1)
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Empties this heap, keeping the backing array.
+     * O(1)
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Returns the keys in the order they appear in the backing array, root first.
+     * O(N)
+     */
+    public long[] toArray() {
+        return Arrays.copyOf(heapData, size);
+    }
+
+    /**
+     * Finds correct spot for the key at i by moving down the tree.
+     *
+     * @param i - index to start percolation at
+     */
+    private void percolateDown(int i) {
+        long key = heapData[i];
+        while (true) {
+            int leftChildIndex = (2 * i) + 1;
+            if (leftChildIndex >= size)
+                break;
+
+            //greater child
+            int rightChildIndex = leftChildIndex + 1;
+            int greaterChild = (rightChildIndex < size && heapData[rightChildIndex] > heapData[leftChildIndex]) ? rightChildIndex : leftChildIndex;
+
+            //move child up if it is greater
+            if (key >= heapData[greaterChild])
+                break;
+            heapData[i] = heapData[greaterChild];
+            i = greaterChild;
+        }
+        heapData[i] = key;
+    }
+
+    /**
+     * Swaps the two keys at the given indices.
+     */
+    private void swap(int curr, int next) {
+        long temp = heapData[curr];
+        heapData[curr] = heapData[next];
+        heapData[next] = temp;
+    }
+}
@@ -0,0 +1,141 @@
+package comprehensive;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Contains tests for LongMaxHeap
+ *
+ * @author Elijah Tolton and Canon Curtis
+ * @version 10/18/2026
+ */
+public class LongMaxHeapTester {
+
+    @Test
+    void testAddAndExtractMax() {
+        LongMaxHeap heap = new LongMaxHeap();
+        long[] keys = {5, -3, 42, 0, 42, 17, Long.MAX_VALUE, Long.MIN_VALUE, 8};
+        for (long key : keys)
+            heap.add(key);
+        assertEquals(keys.length, heap.size());
+        assertEquals(Long.MAX_VALUE, heap.peek());
+
+        long[] sorted = keys.clone();
+        Arrays.sort(sorted);
+        for (int i = sorted.length - 1; i >= 0; i--)
+            assertEquals(sorted[i], heap.extractMax());
+        assertTrue(heap.isEmpty());
+    }
+
+    @Test
+    void testAddGrowsPastInitialCapacity() {
+        LongMaxHeap heap = new LongMaxHeap();
+        for (long key = 0; key < 1000; key++)
+            heap.add(key * 7919 % 1000);
+        for (long key = 999; key >= 0; key--)
+            assertEquals(key, heap.extractMax());
+    }
+
+    @Test
+    void testReplaceMax() {
+        LongMaxHeap heap = new LongMaxHeap();
+        heap.buildHeap(new long[]{1, 9, 4, 7});
+        assertEquals(9, heap.replaceMax(3));
+        assertEquals(4, heap.size());
+        assertEquals(7, heap.replaceMax(10));
+        assertEquals(10, heap.extractMax());
+        assertEquals(4, heap.extractMax());
+        assertEquals(3, heap.extractMax());
+        assertEquals(1, heap.extractMax());
+    }
+
+    @Test
+    void testBuildHeapUsesOnlyLength() {
+        LongMaxHeap heap = new LongMaxHeap();
+        //keys past length are ignored
+        heap.buildHeap(new long[]{3, 8, 1, 6, 100, 200}, 4);
+        assertEquals(4, heap.size());
+        assertEquals(8, heap.extractMax());
+        assertEquals(6, heap.extractMax());
+        assertEquals(3, heap.extractMax());
+        assertEquals(1, heap.extractMax());
+
+        heap.buildHeap(new long[0], 0);
+        assertTrue(heap.isEmpty());
+    }
+
+    @Test
+    void testEmptyHeapThrows() {
+        LongMaxHeap heap = new LongMaxHeap();
+        assertThrows(NoSuchElementException.class, heap::peek);
+        assertThrows(NoSuchElementException.class, heap::extractMax);
+        assertThrows(NoSuchElementException.class, () -> heap.replaceMax(1));
+
+        heap.add(1);
+        heap.extractMax();
+        assertThrows(NoSuchElementException.class, heap::extractMax);
+    }
+
+    @Test
+    void testPackOrdersLikeKeyValuePair() {
+        SplittableRandom random = new SplittableRandom(2420);
+        List<String> words = new ArrayList<>();
+        for (int i = 0; i < 300; i++)
+            words.add("w" + Integer.toString(random.nextInt(1000), 36));
+        words = new ArrayList<>(words.stream().distinct().sorted().toList());
+
+        //few distinct occurrences so many pairs tie
+        List<KeyValuePair> pairs = new ArrayList<>();
+        long[] keys = new long[words.size()];
+        for (int rank = 0; rank < words.size(); rank++) {
+            int occurrence = random.nextInt(4);
+            pairs.add(new KeyValuePair(words.get(rank), occurrence));
+            keys[rank] = LongMaxHeap.pack(occurrence, rank);
+        }
+        pairs.sort(Collections.reverseOrder());
+
+        LongMaxHeap heap = new LongMaxHeap();
+        heap.buildHeap(keys);
+        for (KeyValuePair pair : pairs) {
+            long key = heap.extractMax();
+            assertEquals(pair.getWord(), words.get(LongMaxHeap.rankOf(key)));
+            assertEquals(pair.getOccurrence(), LongMaxHeap.occurrenceOf(key));
+        }
+    }
+
+    @Test
+    void testPackTiesGoToSmallerWord() {
+        assertTrue(LongMaxHeap.pack(5, 0) > LongMaxHeap.pack(5, 1));
+        assertTrue(LongMaxHeap.pack(6, 1) > LongMaxHeap.pack(5, 0));
+        assertTrue(new KeyValuePair("apple", 5).compareTo(new KeyValuePair("banana", 5)) > 0);
+    }
+
+    @Test
+    void testPackOccurrencesPast2To31() {
+        //2^31 and 2^32 - 1 occurrences as the unsigned bits of an int
+        int twoTo31 = (int) (1L << 31);
+        int max = (int) ((1L << 32) - 1);
+        long[] keys = {LongMaxHeap.pack(Integer.MAX_VALUE, 0), LongMaxHeap.pack(twoTo31, 1),
+                LongMaxHeap.pack(max, 2), LongMaxHeap.pack(0, 3), LongMaxHeap.pack(twoTo31, 0)};
+        LongMaxHeap heap = new LongMaxHeap();
+        heap.buildHeap(keys);
+
+        long[] expected = {(1L << 32) - 1, 1L << 31, 1L << 31, Integer.MAX_VALUE, 0};
+        int[] expectedRanks = {2, 0, 1, 0, 3};
+        for (int i = 0; i < expected.length; i++) {
+            long key = heap.extractMax();
+            assertEquals(expected[i], Integer.toUnsignedLong(LongMaxHeap.occurrenceOf(key)));
+            assertEquals(expectedRanks[i], LongMaxHeap.rankOf(key));
+        }
+    }
+}
@@ -0,0 +1,296 @@
+package comprehensive;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Phase timers and counters of a run, to tell whether time went to tokenizing, building the model,
+ * selecting with heaps or writing the output.
+ * <ul>
+ *     <li>Phases record their calls, wall time, the tokens read during them and tokens per second, and each
+ *     phase is also a JFR event (comprehensive.Phase) that shows up in a flight recording.</li>
+ *     <li>Counters record bytes read, tokens and heap operations of every heap.</li>
+ *     <li>The model records its vocabulary size, bigram count and a histogram of successors per word,
+ *     in power of two buckets.</li>
+ * </ul>
+ * Turned on with -Dcomprehensive.metrics=summary or -Dcomprehensive.metrics=json, which also picks the format
+ * TextGenerator prints to standard error at the end of a run. The property is read once into ENABLED,
+ * a static final, so when it is off every "if (Metrics.ENABLED)" is folded away by the JIT compiler
+ * and start returns one shared phase that records nothing.
+ * Phases may nest, e.g. sorting the rows happens while building the model, so their times can overlap.
+ *
+ * @author Elijah Tolton and Canon Curtis
+ * @version 10/18/2026
+ */
+public class Metrics {
+    /**
+     * Format of the report, "summary" or "json", null when metrics are off.
+     */
+    public static final String FORMAT = System.getProperty("comprehensive.metrics");
+
+    /**
+     * True if metrics are recorded.
+     */
+    public static final boolean ENABLED = FORMAT != null;
+
+    /**
+     * Events counted while running, each a LongAdder so threads count without contention.
+     */
+    public enum Counter {
+        BYTES_READ("bytes read", "bytesRead"),
+        TOKENS("tokens", "tokens"),
+        HEAP_BUILDS("heap builds", "heapBuilds"),
+        HEAP_ADDS("heap adds", "heapAdds"),
+        HEAP_EXTRACTS("heap extracts", "heapExtracts"),
+        HEAP_REPLACES("heap replaces", "heapReplaces"),
+        HEAP_UPDATES("heap updates", "heapUpdates");
+
+        private final String label;
+        private final String key;
+        private final LongAdder count = new LongAdder();
+
+        Counter(String label, String key) {
+            this.label = label;
+            this.key = key;
+        }
+    }
+
+    //totals of every phase, in the order the phases first ended
+    private static final Map<String, PhaseTotal> phases = new LinkedHashMap<>();
+
+    //last model recorded
+    private static int vocabularySize;
+    private static long bigramCount;
+    //words with 0 successors at index 0, with 2^(i - 1) to 2^i - 1 successors at index i
+    private static long[] fanoutHistogram = new long[0];
+
+    /**
+     * Adds to a counter, call only if ENABLED.
+     * O(1)
+     *
+     * @param counter - counter to add to
+     * @param amount - amount to add
+     */
+    public static void add(Counter counter, long amount) {
+        counter.count.add(amount);
+    }
+
+    /**
+     * Counts one event, call only if ENABLED.
+     * O(1)
+     *
+     * @param counter - counter to add one to
+     */
+    public static void count(Counter counter) {
+        counter.count.increment();
+    }
+
+    /**
+     * Starts timing a phase, ended by closing it, e.g. in a try-with-resources statement.
+     * The phase is never referenced inside the statement, so methods timing phases suppress the "try" lint.
+     * O(1)
+     *
+     * @param name - name of the phase
+     * @return - running phase, one shared phase that records nothing if metrics are off
+     */
+    public static Phase start(String name) {
+        return ENABLED ? new Phase(name) : Phase.NONE;
+    }
+
+    /**
+     * Records the vocabulary size, bigram count and successor histogram of a model.
+     * O(V), nothing if metrics are off
+     *
+     * @param model - model the run uses
+     */
+    public static void recordModel(BigramModel model) {
+        if (!ENABLED)
+            return;
+        long[] histogram = new long[33];
+        int buckets = 1;
+        for (int id = 0; id < model.size(); id++) {
+            int bucket = 32 - Integer.numberOfLeadingZeros(model.successorCount(id));
+            histogram[bucket]++;
+            buckets = Math.max(buckets, bucket + 1);
+        }
+
+        synchronized (Metrics.class) {
+            vocabularySize = model.size();
+            bigramCount = model.bigramCount();
+            fanoutHistogram = Arrays.copyOf(histogram, buckets);
+        }
+    }
+
+    /**
+     * Returns the report in FORMAT, a summary unless FORMAT is "json".
+     */
+    public static String report() {
+        return "json".equals(FORMAT) ? toJson() : summary();
+    }
+
+    /**
+     * Returns a table of the phases followed by the counters and the model.
+     */
+    public static synchronized String summary() {
+        if (!ENABLED)
+            return "metrics are off, run with -Dcomprehensive.metrics=summary or -Dcomprehensive.metrics=json";
+
+        StringBuilder out = new StringBuilder();
+        String line = System.lineSeparator();
+        out.append(String.format("%-20s %8s %12s %14s %14s", "phase", "calls", "ms", "tokens", "tokens/s")).append(line);
+        for (Map.Entry<String, PhaseTotal> phase : phases.entrySet()) {
+            PhaseTotal total = phase.getValue();
+            out.append(String.format("%-20s %8d %12.3f %14d %14d", phase.getKey(), total.calls,
+                    total.nanos / 1e6, total.tokens, total.tokensPerSecond())).append(line);
+        }
+        for (Counter counter : Counter.values())
+            out.append(String.format("%-20s %14d", counter.label, counter.count.sum())).append(line);
+        out.append(String.format("%-20s %14d", "vocabulary size", vocabularySize)).append(line);
+        out.append(String.format("%-20s %14d", "bigram count", bigramCount)).append(line);
+        out.append("successors per word").append(line);
+        for (int i = 0; i < fanoutHistogram.length; i++)
+            out.append(String.format("  %-18s %14d", bucketLabel(i), fanoutHistogram[i])).append(line);
+        return out.toString();
+    }
+
+    /**
+     * Returns the same numbers as summary as one JSON object.
+     */
+    public static synchronized String toJson() {
+        if (!ENABLED)
+            return "{\"enabled\":false}";
+
+        StringBuilder out = new StringBuilder("{\"enabled\":true,\"phases\":{");
+        String separator = "";
+        for (Map.Entry<String, PhaseTotal> phase : phases.entrySet()) {
+            PhaseTotal total = phase.getValue();
+            out.append(separator).append('"').append(phase.getKey()).append("\":{\"calls\":").append(total.calls)
+                    .append(",\"nanos\":").append(total.nanos).append(",\"tokens\":").append(total.tokens)
+                    .append(",\"tokensPerSecond\":").append(total.tokensPerSecond()).append('}');
+            separator = ",";
+        }
+        out.append("},\"counters\":{");
+        separator = "";
+        for (Counter counter : Counter.values()) {
+            out.append(separator).append('"').append(counter.key).append("\":").append(counter.count.sum());
+            separator = ",";
+        }
+        out.append("},\"vocabularySize\":").append(vocabularySize)
+                .append(",\"bigramCount\":").append(bigramCount).append(",\"fanoutHistogram\":[");
+        for (int i = 0; i < fanoutHistogram.length; i++) {
+            long min = i == 0 ? 0 : 1L << (i - 1);
+            long max = i == 0 ? 0 : (1L << i) - 1;
+            out.append(i == 0 ? "" : ",").append("{\"min\":").append(min).append(",\"max\":").append(max)
+                    .append(",\"words\":").append(fanoutHistogram[i]).append('}');
+        }
+        return out.append("]}").toString();
+    }
+
+    /**
+     * Returns the range of successors of a histogram bucket, e.g. "4-7".
+     */
+    private static String bucketLabel(int i) {
+        if (i <= 1)
+            return Integer.toString(i);
+        return (1L << (i - 1)) + "-" + ((1L << i) - 1);
+    }
+
+    /**
+     * Adds a finished phase to the totals.
+     */
+    private static synchronized void end(String name, long nanos, long tokens) {
+        PhaseTotal total = phases.computeIfAbsent(name, n -> new PhaseTotal());
+        total.calls++;
+        total.nanos += nanos;
+        total.tokens += tokens;
+    }
+
+    /**
+     * One running phase, timed from start until it is closed.
+     */
+    public static final class Phase implements AutoCloseable {
+        private static final Phase NONE = new Phase();
+
+        private final String name;
+        private final long startNanos;
+        private final long startTokens;
+        private final long startBytes;
+        private final PhaseEvent event;
+
+        /**
+         * Phase that records nothing.
+         */
+        private Phase() {
+            name = null;
+            startNanos = startTokens = startBytes = 0;
+            event = null;
+        }
+
+        private Phase(String name) {
+            this.name = name;
+            startTokens = Counter.TOKENS.count.sum();
+            startBytes = Counter.BYTES_READ.count.sum();
+            event = new PhaseEvent();
+            event.phase = name;
+            event.begin();
+            startNanos = System.nanoTime();
+        }
+
+        /**
+         * Ends the phase, adding it to the totals and committing its JFR event.
+         */
+        @Override
+        public void close() {
+            if (name == null)
+                return;
+            long nanos = System.nanoTime() - startNanos;
+            long tokens = Counter.TOKENS.count.sum() - startTokens;
+            event.end();
+            if (event.shouldCommit()) {
+                event.tokens = tokens;
+                event.bytes = Counter.BYTES_READ.count.sum() - startBytes;
+                event.commit();
+            }
+            end(name, nanos, tokens);
+        }
+    }
+
+    /**
+     * Calls, time and tokens of every run of one phase.
+     */
+    private static class PhaseTotal {
+        private long calls;
+        private long nanos;
+        private long tokens;
+
+        private long tokensPerSecond() {
+            return nanos == 0 ? 0 : (long) (tokens * 1e9 / nanos);
+        }
+    }
+
+    /**
+     * JFR event of one phase, its duration is the time of the phase.
+     */
+    @Name("comprehensive.Phase")
+    @Label("Text Generator Phase")
+    @Category("Text Generator")
+    static class PhaseEvent extends Event {
+        @Label("Phase")
+        String phase;
+
+        @Label("Tokens")
+        long tokens;
+
+        @Label("Bytes Read")
+        @DataAmount
+        long bytes;
+    }
+}
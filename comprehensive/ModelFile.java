@@ -0,0 +1,161 @@
+package comprehensive;
+
+import java.io.*;
+import java.util.Arrays;
+
+/**
+ * Reads and writes a compiled binary model so the text file only has to be tokenized once.
+ * The file stores every distinct word once followed by each word's successors and their counts.
+ * <p>
+ * Layout: magic number, vocabulary size, every word as (byte length, UTF-8 bytes), then for every
+ * word id in order its row as (successor count, (successor id, occurrence) pairs).
+ * All numbers after the magic number are unsigned variable length integers.
+ *
+ * @author Elijah Tolton and Canon Curtis
+ * @version 10/18/2026
+ */
+public class ModelFile {
+    //"TGM1" marks a compiled model file
+    public static final int MAGIC = 0x54474D31;
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * Writes the words of a model and their successors to a binary model file.
+     * O(V + B) where V is the number of distinct words and B is the number of distinct word pairs
+     *
+     * @param model - model to write
+     * @param modelPath - path of model file to write
+     * @throws IOException - if the model file cannot be written
+     */
+    public static void write(BigramModel model, String modelPath) throws IOException {
+        Vocabulary vocabulary = model.vocabulary();
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(modelPath), BUFFER_SIZE))) {
+            out.writeInt(MAGIC);
+
+            //vocabulary
+            writeVarInt(out, vocabulary.size());
+            byte[] bytes = new byte[64];
+            for (int id = 0; id < vocabulary.size(); id++) {
+                int length = vocabulary.wordLength(id);
+                if (length > bytes.length)
+                    bytes = new byte[length];
+                vocabulary.copyWord(id, bytes, 0);
+                writeVarInt(out, length);
+                out.write(bytes, 0, length);
+            }
+
+            //successor rows in id order
+            for (int id = 0; id < vocabulary.size(); id++) {
+                writeVarInt(out, model.successorCount(id));
+                for (int i = 0; i < model.successorCount(id); i++) {
+                    writeVarInt(out, model.successor(id, i));
+                    writeVarInt(out, model.count(id, i));
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads a binary model file straight into the arrays of a BigramModel.
+     * O(V + B) with no tokenizing of the original text.
+     *
+     * @param modelPath - path of model file to read
+     * @return - model of the original text
+     * @throws IOException - if the file cannot be read or is not a model file
+     */
+    public static BigramModel read(String modelPath) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(modelPath), BUFFER_SIZE))) {
+            if (in.readInt() != MAGIC)
+                throw new IOException(modelPath + " is not a compiled model file");
+
+            //vocabulary
+            Vocabulary vocabulary = new Vocabulary();
+            int words = readVarInt(in);
+            byte[] bytes = new byte[64];
+            for (int i = 0; i < words; i++) {
+                int length = readVarInt(in);
+                if (length > bytes.length)
+                    bytes = new byte[length];
+                in.readFully(bytes, 0, length);
+                vocabulary.idOf(bytes, 0, length, Vocabulary.hash(bytes, 0, length));
+            }
+
+            //successor rows, arrays grow as rows are read
+            int[] rowStart = new int[words + 1];
+            int[] successors = new int[Math.max(16, words)];
+            int[] counts = new int[successors.length];
+            int total = 0;
+            for (int id = 0; id < words; id++) {
+                int rowLength = readVarInt(in);
+                if (total + rowLength > successors.length) {
+                    int capacity = Math.max(successors.length * 2, total + rowLength);
+                    successors = Arrays.copyOf(successors, capacity);
+                    counts = Arrays.copyOf(counts, capacity);
+                }
+                for (int i = 0; i < rowLength; i++) {
+                    successors[total] = readVarInt(in);
+                    counts[total++] = readVarInt(in);
+                }
+                rowStart[id + 1] = total;
+            }
+            return new BigramModel(vocabulary, rowStart, Arrays.copyOf(successors, total), Arrays.copyOf(counts, total));
+        }
+    }
+
+    /**
+     * Returns true if the given file starts with the model file magic number.
+     *
+     * @param file - file to check
+     * @return - true if file is a compiled model
+     */
+    public static boolean isModelFile(File file) {
+        return startsWith(file, MAGIC);
+    }
+
+    /**
+     * Returns true if the given file starts with a magic number.
+     *
+     * @param file - file to check
+     * @param magic - first int of the file's format
+     * @return - true if file starts with magic
+     */
+    static boolean startsWith(File file, int magic) {
+        try (DataInputStream in = new DataInputStream(new FileInputStream(file))) {
+            return in.readInt() == magic;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Writes a non-negative int using 7 bits per byte, high bit set on all but the last byte.
+     *
+     * @param out - stream to write to
+     * @param value - non-negative value
+     */
+    static void writeVarInt(DataOutput out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    /**
+     * Reads an int written by writeVarInt.
+     *
+     * @param in - stream to read from
+     * @return - value read
+     */
+    static int readVarInt(DataInput in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = in.readByte();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0)
+                return value;
+        }
+        throw new IOException("Malformed variable length integer");
+    }
+}
@@ -0,0 +1,91 @@
+package comprehensive;
+
+/**
+ * Options that trade a little accuracy in the rare tail of the model for a smaller model that builds faster.
+ * <ul>
+ *     <li>minCount drops word pairs seen fewer times, most pairs of a large text are seen only once.</li>
+ *     <li>maxSuccessors keeps only the most probable successors of every word.</li>
+ *     <li>memoryBudget caps the bytes of the BigramTable counting pairs, which sweeps away its lowest
+ *     counts whenever it would have to grow past the budget.</li>
+ * </ul>
+ * minCount and maxSuccessors never change the most probable word after a word that keeps any successor.
+ * Sweeps can, since a pair swept early in the text counts from zero if it shows up again.
+ *
+ * @author Elijah Tolton and Canon Curtis
+ * @version 10/18/2026
+ */
+public class ModelPruning {
+    private final int minCount;
+    private final int maxSuccessors;
+    private final long memoryBudget;
+
+    /**
+     * Creates pruning options.
+     *
+     * @param minCount - fewest occurrences a word pair needs to be kept, 1 keeps every pair
+     * @param maxSuccessors - most successors kept per word, Integer.MAX_VALUE keeps all
+     * @param memoryBudget - most bytes the pair table may use while counting, Long.MAX_VALUE for no cap
+     * @throws IllegalArgumentException - if minCount or maxSuccessors is below 1
+     */
+    public ModelPruning(int minCount, int maxSuccessors, long memoryBudget) {
+        if (minCount < 1 || maxSuccessors < 1)
+            throw new IllegalArgumentException("minCount and maxSuccessors must be at least 1");
+        this.minCount = minCount;
+        this.maxSuccessors = maxSuccessors;
+        this.memoryBudget = memoryBudget;
+    }
+
+    /**
+     * Sets the memory budget of a table before counting into it.
+     *
+     * @param table - empty table that is about to count pairs
+     */
+    public void prepare(BigramTable table) {
+        table.setMemoryBudget(memoryBudget);
+    }
+
+    /**
+     * Removes rare pairs from a counted table before it is sorted into a model, so they are never sorted.
+     * O(capacity of table)
+     *
+     * @param table - counted pairs
+     */
+    public void beforeFreeze(BigramTable table) {
+        if (minCount > 1)
+            table.removeBelow(minCount);
+    }
+
+    /**
+     * Applies minCount and maxSuccessors to a built model.
+     * O(R + B)
+     *
+     * @param model - model to prune
+     * @return - pruned model, or model itself if nothing is removed
+     */
+    public BigramModel apply(BigramModel model) {
+        if (minCount == 1 && maxSuccessors == Integer.MAX_VALUE)
+            return model;
+        return model.prune(minCount, maxSuccessors);
+    }
+
+    /**
+     * Returns the fewest occurrences a word pair needs to be kept.
+     */
+    public int getMinCount() {
+        return minCount;
+    }
+
+    /**
+     * Returns the most successors kept per word.
+     */
+    public int getMaxSuccessors() {
+        return maxSuccessors;
+    }
+
+    /**
+     * Returns the most bytes the pair table may use while counting.
+     */
+    public long getMemoryBudget() {
+        return memoryBudget;
+    }
+}
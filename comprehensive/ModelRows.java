@@ -0,0 +1,31 @@
+package comprehensive;
+
+/**
+ * Storage of the sorted successor rows of a BigramModel. Positions of row r run from rowStart(r)
+ * to rowStart(r + 1) - 1, each with the id of a successor and its occurrences.
+ * Rows live in int arrays on the heap, or in off-heap memory when copied by OffHeapModel.
+ *
+ * @author Elijah Tolton and Canon Curtis
+ * @version 10/18/2026
+ */
+interface ModelRows {
+    /**
+     * Returns the number of rows.
+     */
+    int rowCount();
+
+    /**
+     * Returns the first position of the given row, rowStart(rowCount()) is the number of positions.
+     */
+    int rowStart(int row);
+
+    /**
+     * Returns the successor id at the given position.
+     */
+    int successor(int position);
+
+    /**
+     * Returns the occurrences of the successor at the given position.
+     */
+    int count(int position);
+}
@@ -0,0 +1,230 @@
+package comprehensive;
+
+import java.io.IOException;
+import java.util.LinkedList;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.random.RandomGenerator;
+
+/**
+ * Model where the next word depends on up to N - 1 previous words instead of only one.
+ * <p>
+ * Contexts (runs of 1 to N - 1 words) are nodes of a trie over word ids. The trie is stored as a
+ * BigramTable mapping (parent context id, word id) to the child context id, so there is no object per node.
+ * Successor counts of every context are grouped into the sorted rows of a BigramModel, one row per context,
+ * so the greedy word is the first of its row and weighted picks use the row's alias table.
+ * When a context has never been followed by anything, generation backs off to shorter contexts,
+ * and starts over at the seed if even the last word alone has no successors.
+ *
+ * @author Elijah Tolton and Canon Curtis
+ * @version 10/18/2026
+ */
+public class NGramModel {
+    //context 0 is the empty context, the root of the trie
+    private static final int ROOT = 0;
+
+    private final int order;
+    private final Vocabulary vocabulary;
+    //child context id + 1 of (parent context id, word id)
+    private final BigramTable children;
+    //row of every context id
+    private final BigramModel rows;
+
+    /**
+     * Wraps the parts of a built model.
+     */
+    private NGramModel(int order, Vocabulary vocabulary, BigramTable children, BigramModel rows) {
+        this.order = order;
+        this.vocabulary = vocabulary;
+        this.children = children;
+        this.rows = rows;
+    }
+
+    /**
+     * Reads every word of the tokenizer and counts the word after each of the last 1 to N - 1 words.
+     * O(words * N) average case
+     *
+     * @param tokenizer - words of the text
+     * @param order - N, from 2 (only the previous word) to 5
+     * @return - model of the text
+     * @throws IOException - if the text cannot be read
+     * @throws IllegalArgumentException - if order is not between 2 and 5
+     */
+    public static NGramModel build(WordTokenizer tokenizer, int order) throws IOException {
+        if (order < 2 || order > 5)
+            throw new IllegalArgumentException("order must be between 2 and 5");
+
+        Vocabulary vocabulary = new Vocabulary();
+        BigramTable children = new BigramTable();
+        BigramTable counts = new BigramTable();
+        int contexts = 1;
+
+        //suffix[len] is the context id of the last len words read, suffix[0] is the root
+        int[] suffix = new int[order];
+        int filled = 0;
+
+        int next;
+        while ((next = tokenizer.nextId(vocabulary)) >= 0) { //O(words)
+
+            //next follows every context ending at the previous word
+            for (int len = 1; len <= filled; len++)
+                counts.increment(suffix[len], next);
+
+            //each context grows by next, longest first so shorter ones are still the old contexts
+            filled = Math.min(filled + 1, order - 1);
+            for (int len = filled; len >= 1; len--) {
+                int existing = children.putIfAbsent(suffix[len - 1], next, contexts + 1);
+                if (existing == 0)
+                    suffix[len] = contexts++;
+                else
+                    suffix[len] = existing - 1;
+            }
+        }
+
+        return new NGramModel(order, vocabulary, children, new BigramModel(vocabulary, counts, contexts));
+    }
+
+    /**
+     * Returns N, the number of words each prediction looks at including the predicted word.
+     */
+    public int getOrder() {
+        return order;
+    }
+
+    /**
+     * Returns the number of distinct contexts of 1 to N - 1 words.
+     */
+    public int contextCount() {
+        return rows.rowCount();
+    }
+
+    /**
+     * Returns the number of distinct (context, next word) pairs.
+     */
+    public int countedPairs() {
+        return rows.bigramCount();
+    }
+
+    /**
+     * Returns the context id of words[from] to words[to - 1].
+     * O(to - from) average case
+     *
+     * @return - context id, or -1 if that run of words never appeared
+     */
+    private int contextOf(int[] words, int from, int to) {
+        int context = ROOT;
+        for (int i = from; i < to; i++) {
+            int child = children.get(context, words[i]);
+            if (child == 0)
+                return -1;
+            context = child - 1;
+        }
+        return context;
+    }
+
+    /**
+     * Returns the words the model was built from, ids of generated words refer to it.
+     */
+    Vocabulary vocabulary() {
+        return vocabulary;
+    }
+
+    /**
+     * Generates k words starting with the seed, each predicted from up to N - 1 words before it.
+     * O(k * N^2) worst case with back off, O(k * N) when the longest context has successors
+     *
+     * @param seed - first word
+     * @param k - number of words to output
+     * @param weighted - true to pick words at random by occurrences ("all"), false for the most probable ("one")
+     * @param random - source of randomness for weighted picks
+     * @return - list of k words
+     */
+    public LinkedList<String> generate(String seed, int k, boolean weighted, RandomGenerator random) {
+        LinkedList<String> out = new LinkedList<>();
+        PrimitiveIterator.OfInt ids = iterator(seed, k, weighted, random);
+        while (ids.hasNext()) {
+            int id = ids.nextInt();
+            out.addLast(id < 0 ? seed : vocabulary.wordOf(id));
+        }
+        return out;
+    }
+
+    /**
+     * Pulls the same words as generate one at a time as word ids, in constant memory.
+     *
+     * @param seed - first word
+     * @param k - number of words
+     * @param weighted - true to pick words at random by occurrences ("all"), false for the most probable ("one")
+     * @param random - source of randomness for weighted picks
+     * @return - ids of k words, -1 for a seed not in the model
+     */
+    public PrimitiveIterator.OfInt iterator(String seed, long k, boolean weighted, RandomGenerator random) {
+        return new Generator(vocabulary.find(seed), k, weighted, random);
+    }
+
+    /**
+     * Iterator of generated word ids, remembering the last up to N - 1 words.
+     */
+    private class Generator implements PrimitiveIterator.OfInt {
+        private final int seedId;
+        private final boolean weighted;
+        private final RandomGenerator random;
+        private long remaining;
+
+        //last up to N - 1 words output, oldest first
+        private final int[] recent = new int[order - 1];
+        private int filled = 1;
+
+        /**
+         * Starts at the seed.
+         */
+        private Generator(int seedId, long k, boolean weighted, RandomGenerator random) {
+            this.seedId = seedId;
+            this.weighted = weighted;
+            this.random = random;
+            this.remaining = k;
+            recent[0] = seedId;
+        }
+
+        /**
+         * Returns true if there are more words.
+         */
+        @Override
+        public boolean hasNext() {
+            return remaining > 0;
+        }
+
+        /**
+         * Returns the id of the next word and predicts the word after it.
+         * O(N^2) worst case with back off, O(N) when the longest context has successors
+         */
+        @Override
+        public int nextInt() {
+            if (remaining <= 0)
+                throw new NoSuchElementException("No more words");
+            remaining--;
+            int out = recent[filled - 1];
+
+            //longest context that has been followed by something
+            int next = -1;
+            for (int len = filled; len >= 1 && next < 0 && recent[filled - 1] >= 0; len--) {
+                int context = contextOf(recent, filled - len, filled);
+                if (context < 0 || rows.successorCount(context) == 0)
+                    continue;
+                next = weighted ? rows.successor(context, rows.aliasTable(context).sample(random)) : rows.successor(context, 0);
+            }
+
+            if (next < 0) {
+                //start over at seed
+                recent[0] = seedId;
+                filled = 1;
+            } else if (filled < recent.length) {
+                recent[filled++] = next;
+            } else {
+                System.arraycopy(recent, 1, recent, 0, filled - 1);
+                recent[filled - 1] = next;
+            }
+            return out;
+        }
+    }
+}
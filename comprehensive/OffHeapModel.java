@@ -0,0 +1,228 @@
+package comprehensive;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Copies a BigramModel into MemorySegments allocated from an Arena, outside the Java heap.
+ * The copy answers every query through the same BigramModel methods, but its words, hash table
+ * and rows are a handful of off-heap segments instead of millions of objects and arrays the garbage
+ * collector has to scan. The memory lives until the arena is closed, after which the copy must not be used.
+ * Every FFM type stays inside this class, so callers that never copy a model don't need preview features.
+ * <p>
+ * Alias tables of the "all" mode are still made on the heap, only for the rows that are sampled.
+ * Uses the Foreign Function and Memory API, a preview API in Java 21 (run with --enable-preview).
+ *
+ * @author Elijah Tolton and Canon Curtis
+ * @version 10/18/2026
+ */
+public class OffHeapModel {
+    private static final ValueLayout.OfInt INT = ValueLayout.JAVA_INT;
+    private static final ValueLayout.OfLong LONG = ValueLayout.JAVA_LONG;
+
+    /**
+     * Copies the words and rows of a model into memory of its own automatic arena, freed once the copy
+     * is no longer reachable. Any thread may read the copy.
+     * O(V + B) where V is the number of distinct words and B is the number of distinct word pairs
+     *
+     * @param model - model to copy
+     * @return - model backed by off-heap memory, answering the same as model
+     */
+    public static BigramModel copy(BigramModel model) {
+        return copy(model, Arena.ofAuto());
+    }
+
+    /**
+     * Copies the words and rows of a model into memory allocated from the arena.
+     * O(V + B) where V is the number of distinct words and B is the number of distinct word pairs
+     *
+     * @param model - model to copy
+     * @param arena - owner of the copied memory, Arena.ofShared() if many threads read the model
+     * @return - model backed by off-heap memory, answering the same as model
+     */
+    public static BigramModel copy(BigramModel model, Arena arena) {
+        return new BigramModel(new OffHeapVocabulary(model.vocabulary(), arena), new OffHeapRows(model, arena));
+    }
+
+    /**
+     * Rows as one segment of row starts and one segment of (successor, occurrences) pairs,
+     * so the id and count of a successor share a cache line.
+     */
+    private static class OffHeapRows implements ModelRows {
+        private final MemorySegment rowStart;
+        //successor id at 2 * position, occurrences at 2 * position + 1
+        private final MemorySegment pairs;
+        private final int rowCount;
+
+        private OffHeapRows(BigramModel model, Arena arena) {
+            rowCount = model.rowCount();
+            rowStart = arena.allocateArray(INT, rowCount + 1L);
+            pairs = arena.allocateArray(INT, 2L * Math.max(1, model.bigramCount()));
+
+            int position = 0;
+            for (int row = 0; row < rowCount; row++) {
+                rowStart.setAtIndex(INT, row, position);
+                for (int i = 0; i < model.successorCount(row); i++, position++) {
+                    pairs.setAtIndex(INT, 2L * position, model.successor(row, i));
+                    pairs.setAtIndex(INT, 2L * position + 1, model.count(row, i));
+                }
+            }
+            rowStart.setAtIndex(INT, rowCount, position);
+        }
+
+        @Override
+        public int rowCount() {
+            return rowCount;
+        }
+
+        @Override
+        public int rowStart(int row) {
+            return rowStart.getAtIndex(INT, row);
+        }
+
+        @Override
+        public int successor(int position) {
+            return pairs.getAtIndex(INT, 2L * position);
+        }
+
+        @Override
+        public int count(int position) {
+            return pairs.getAtIndex(INT, 2L * position + 1);
+        }
+    }
+
+    /**
+     * Read only vocabulary whose words are UTF-8 bytes back to back in one segment, found through an
+     * open addressing table of ids in another. Strings are only made when a word is output.
+     */
+    private static class OffHeapVocabulary extends Vocabulary {
+        private final MemorySegment bytes;
+        //offset in bytes of every word, wordStart[id + 1] is the end of word id
+        private final MemorySegment wordStart;
+        //id + 1 of the word in each slot, 0 if the slot is empty
+        private final MemorySegment table;
+        private final int mask;
+        private final int size;
+
+        private OffHeapVocabulary(Vocabulary vocabulary, Arena arena) {
+            size = vocabulary.size();
+            long total = 0;
+            for (int id = 0; id < size; id++)
+                total += vocabulary.wordLength(id);
+
+            //words back to back, hashed as they are copied
+            bytes = arena.allocate(Math.max(1, total));
+            wordStart = arena.allocateArray(LONG, size + 1L);
+            int[] hashes = new int[size];
+            byte[] word = new byte[64];
+            long offset = 0;
+            for (int id = 0; id < size; id++) {
+                int length = vocabulary.wordLength(id);
+                if (length > word.length)
+                    word = new byte[length];
+                vocabulary.copyWord(id, word, 0);
+                hashes[id] = Vocabulary.hash(word, 0, length);
+
+                wordStart.setAtIndex(LONG, id, offset);
+                MemorySegment.copy(word, 0, bytes, ValueLayout.JAVA_BYTE, offset, length);
+                offset += length;
+            }
+            wordStart.setAtIndex(LONG, size, offset);
+
+            //at most half full
+            int capacity = Integer.highestOneBit(Math.max(16, size) * 2) * 2;
+            mask = capacity - 1;
+            table = arena.allocateArray(INT, capacity);
+            table.fill((byte) 0);
+            for (int id = 0; id < size; id++) {
+                int i = Vocabulary.spread(hashes[id]) & mask;
+                while (table.getAtIndex(INT, i) != 0)
+                    i = (i + 1) & mask;
+                table.setAtIndex(INT, i, id + 1);
+            }
+        }
+
+        /**
+         * The copy is frozen, new words cannot be added.
+         *
+         * @throws UnsupportedOperationException - always
+         */
+        @Override
+        public int idOf(byte[] word, int offset, int length, int hash) {
+            throw new UnsupportedOperationException("off-heap vocabulary is read only");
+        }
+
+        /**
+         * The copy is frozen, new words cannot be added.
+         *
+         * @throws UnsupportedOperationException - always
+         */
+        @Override
+        public int idOf(Vocabulary other, int otherId) {
+            throw new UnsupportedOperationException("off-heap vocabulary is read only");
+        }
+
+        /**
+         * Returns the id of word, comparing its bytes with the stored bytes.
+         * O(length of word) average case
+         */
+        @Override
+        public int find(byte[] word, int offset, int length, int hash) {
+            MemorySegment wanted = MemorySegment.ofArray(word);
+            int i = Vocabulary.spread(hash) & mask;
+            int slot;
+            while ((slot = table.getAtIndex(INT, i)) != 0) {
+                int id = slot - 1;
+                long start = wordStart.getAtIndex(LONG, id);
+                long end = wordStart.getAtIndex(LONG, id + 1);
+                if (MemorySegment.mismatch(bytes, start, end, wanted, offset, offset + length) < 0)
+                    return id;
+                i = (i + 1) & mask;
+            }
+            return -1;
+        }
+
+        /**
+         * Returns the word with the given id, made from its stored bytes every time.
+         * O(length of word)
+         */
+        @Override
+        public String wordOf(int id) {
+            long start = wordStart.getAtIndex(LONG, id);
+            long end = wordStart.getAtIndex(LONG, id + 1);
+            return new String(bytes.asSlice(start, end - start).toArray(ValueLayout.JAVA_BYTE), StandardCharsets.UTF_8);
+        }
+
+        /**
+         * Compares the bytes of two words where they sit off the heap.
+         */
+        @Override
+        int compareWords(int a, int b) {
+            MemorySegment x = bytes.asSlice(wordStart.getAtIndex(LONG, a), wordLength(a));
+            MemorySegment y = bytes.asSlice(wordStart.getAtIndex(LONG, b), wordLength(b));
+            long i = x.mismatch(y);
+            if (i < 0)
+                return 0;
+            if (i == x.byteSize() || i == y.byteSize())
+                return Long.compare(x.byteSize(), y.byteSize());
+            return Byte.toUnsignedInt(x.get(ValueLayout.JAVA_BYTE, i)) - Byte.toUnsignedInt(y.get(ValueLayout.JAVA_BYTE, i));
+        }
+
+        @Override
+        public int wordLength(int id) {
+            return (int) (wordStart.getAtIndex(LONG, id + 1) - wordStart.getAtIndex(LONG, id));
+        }
+
+        @Override
+        public void copyWord(int id, byte[] destination, int offset) {
+            MemorySegment.copy(bytes, ValueLayout.JAVA_BYTE, wordStart.getAtIndex(LONG, id), destination, offset, wordLength(id));
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package comprehensive;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Builds the model of words and their successors on every core of a ForkJoinPool.
+ * The file is split into byte ranges at whitespace so no word is cut in half, each range is
+ * counted into its own vocabulary and pair table, and partial tables are merged back together
+ * along with the word pair that crosses each split.
+ *
+ * @author Elijah Tolton and Canon Curtis
+ * @version 10/18/2026
+ */
+public class ParallelModelBuilder {
+    //ranges smaller than this are counted on one thread
+    private static final long MIN_CHUNK_SIZE = 1 << 22;
+
+    /**
+     * Builds the model of the given text file on the common ForkJoinPool.
+     *
+     * @param file - text file to read
+     * @return - model of the text file
+     * @throws IOException - if the file cannot be read
+     */
+    public static BigramModel build(File file) throws IOException {
+        return build(file, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Builds the model of the given text file on the given ForkJoinPool.
+     * O(file size / threads + merging), the same result as reading the file on one thread.
+     *
+     * @param file - text file to read
+     * @param pool - pool the ranges are counted on
+     * @return - model of the text file
+     * @throws IOException - if the file cannot be read
+     */
+    public static BigramModel build(File file, ForkJoinPool pool) throws IOException {
+        return build(file, pool, MIN_CHUNK_SIZE);
+    }
+
+    /**
+     * Builds the model of the given text file on the given ForkJoinPool, splitting ranges down to a given size,
+     * e.g. a few bytes so tests split a small file many times.
+     *
+     * @param file - text file to read
+     * @param pool - pool the ranges are counted on
+     * @param minChunkSize - ranges of at most this many bytes are counted on one thread
+     * @return - model of the text file
+     * @throws IOException - if the file cannot be read
+     */
+    static BigramModel build(File file, ForkJoinPool pool, long minChunkSize) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            PartialModel model = pool.invoke(new ChunkTask(channel, 0, channel.size(), minChunkSize));
+            return new BigramModel(model.vocabulary, model.table);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Returns the position of the first ASCII whitespace byte at or after from, or end if there is none.
+     * ASCII bytes never appear inside a multibyte UTF-8 character so this is always a word boundary.
+     */
+    private static long nextBoundary(FileChannel channel, long from, long end) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(4096);
+        long position = from;
+        while (position < end) {
+            buffer.clear();
+            int read = channel.read(buffer, position);
+            if (read <= 0)
+                break;
+            for (int i = 0; i < read && position + i < end; i++) {
+                int b = buffer.get(i);
+                if (b >= 0 && WordTokenizer.isWhitespace(b))
+                    return position + i;
+            }
+            position += read;
+        }
+        return end;
+    }
+
+    /**
+     * Word pairs counted in one range of the file with ids local to that range, plus the first and
+     * last word of the range so the pair crossing into the next range can be added when ranges are merged.
+     */
+    private static class PartialModel {
+        private Vocabulary vocabulary = new Vocabulary();
+        private BigramTable table = new BigramTable();
+        private int first = -1;
+        private int last = -1;
+
+        /**
+         * Merges the range directly after this one into this range.
+         * O(size of the smaller range's vocabulary and table)
+         *
+         * @param right - partial model of the following range
+         * @return - partial model of both ranges
+         */
+        private PartialModel merge(PartialModel right) {
+            PartialModel big = table.size() >= right.table.size() ? this : right;
+            PartialModel small = big == this ? right : this;
+
+            //ids of the small range's words in the big range
+            int[] remap = new int[small.vocabulary.size()];
+            for (int id = 0; id < remap.length; id++)
+                remap[id] = big.vocabulary.idOf(small.vocabulary, id);
+
+            for (int slot = 0; slot < small.table.capacity(); slot++) {
+                long key = small.table.keyAt(slot);
+                if (key != BigramTable.EMPTY)
+                    big.table.add(remap[BigramTable.prevOf(key)], remap[BigramTable.nextOf(key)], small.table.countAt(slot));
+            }
+
+            //first and last words in terms of the big range's ids
+            int leftFirst = first < 0 ? -1 : (big == this ? first : remap[first]);
+            int leftLast = last < 0 ? -1 : (big == this ? last : remap[last]);
+            int rightFirst = right.first < 0 ? -1 : (big == right ? right.first : remap[right.first]);
+            int rightLast = right.last < 0 ? -1 : (big == right ? right.last : remap[right.last]);
+
+            //stitch the pair that crosses the split
+            if (leftLast >= 0 && rightFirst >= 0)
+                big.table.increment(leftLast, rightFirst);
+
+            big.first = leftFirst >= 0 ? leftFirst : rightFirst;
+            big.last = rightLast >= 0 ? rightLast : leftLast;
+            return big;
+        }
+    }
+
+    /**
+     * Counts a byte range of the file, splitting it in half at a word boundary while it is large.
+     * Tasks are never serialized.
+     */
+    @SuppressWarnings("serial")
+    private static class ChunkTask extends RecursiveTask<PartialModel> {
+        private final FileChannel channel;
+        private final long start;
+        private final long end;
+        private final long minChunkSize;
+
+        private ChunkTask(FileChannel channel, long start, long end, long minChunkSize) {
+            this.channel = channel;
+            this.start = start;
+            this.end = end;
+            this.minChunkSize = minChunkSize;
+        }
+
+        @Override
+        protected PartialModel compute() {
+            try {
+                if (end - start > minChunkSize) {
+                    long middle = nextBoundary(channel, start + (end - start) / 2, end);
+                    if (middle < end) {
+                        ChunkTask left = new ChunkTask(channel, start, middle, minChunkSize);
+                        left.fork();
+                        PartialModel right = new ChunkTask(channel, middle, end, minChunkSize).compute();
+                        return left.join().merge(right);
+                    }
+                }
+                return countRange();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        /**
+         * Counts every word pair inside this range on the current thread.
+         */
+        private PartialModel countRange() throws IOException {
+            PartialModel partial = new PartialModel();
+            WordTokenizer tokenizer = new WordTokenizer(InputSource.mapRange(channel, start, end));
+            int curr = tokenizer.nextId(partial.vocabulary);
+            if (curr < 0)
+                return partial;
+
+            partial.first = curr;
+            int next;
+            while ((next = tokenizer.nextId(partial.vocabulary)) >= 0) {
+                partial.table.increment(curr, next);
+                curr = next;
+            }
+
+            partial.last = curr;
+            return partial;
+        }
+    }
+}
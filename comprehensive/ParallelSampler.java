@@ -0,0 +1,174 @@
+package comprehensive;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Generates many independent sequences of the "all" mode in parallel from one shared model.
+ * <p>
+ * Every sequence gets its own SplittableRandom, split from one generator made from the master seed before any
+ * sequence starts. Sequence i always gets the i-th split, so the same master seed gives the same sequences
+ * whatever the number of threads or the order the sequences run in. The alias table of every word is built
+ * before sampling, so during sampling threads only read the model and each writes its own sequences.
+ * <p>
+ * write holds at most MAX_BUFFERED_IDS ids at once: sequences are generated a block at a time and each block is
+ * written before the next is generated. A single sequence longer than that is streamed word by word instead.
+ *
+ * @author Elijah Tolton and Canon Curtis
+ * @version 10/18/2026
+ */
+public class ParallelSampler {
+    //sequences generated on one thread without splitting further
+    private static final int MIN_SEQUENCES_PER_TASK = 64;
+    //most ids of finished sequences held by write before they are written, 4 MB
+    static final int MAX_BUFFERED_IDS = 1 << 20;
+
+    private final BigramModel model;
+
+    /**
+     * Creates a sampler over a model, building the alias table of every word that has successors.
+     * O(B) where B is the number of distinct word pairs
+     *
+     * @param model - model shared by every sequence, only read while sampling
+     */
+    public ParallelSampler(BigramModel model) {
+        this.model = model;
+        model.buildAliasTables();
+    }
+
+    /**
+     * Generates sequences on the common ForkJoinPool.
+     *
+     * @param seed - first word of every sequence
+     * @param sequences - number of sequences
+     * @param k - words per sequence, including the seed
+     * @param masterSeed - seed every sequence's random generator is split from
+     * @return - word ids of every sequence, -1 for a seed not in the model
+     */
+    public int[][] sample(String seed, int sequences, int k, long masterSeed) {
+        return sample(seed, sequences, k, masterSeed, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Generates sequences on the given ForkJoinPool, the same sequences on any pool.
+     * O(sequences * k / threads)
+     *
+     * @param seed - first word of every sequence
+     * @param sequences - number of sequences
+     * @param k - words per sequence, including the seed
+     * @param masterSeed - seed every sequence's random generator is split from
+     * @param pool - pool the sequences are generated on
+     * @return - word ids of every sequence, -1 for a seed not in the model
+     */
+    public int[][] sample(String seed, int sequences, int k, long masterSeed, ForkJoinPool pool) {
+        //split on one thread, in order, so sequence i always gets the same generator
+        SplittableRandom master = new SplittableRandom(masterSeed);
+        SplittableRandom[] randoms = new SplittableRandom[sequences];
+        for (int i = 0; i < sequences; i++)
+            randoms[i] = master.split();
+
+        int[][] out = new int[sequences][];
+        pool.invoke(new SampleTask(seed, k, randoms, out, 0, sequences));
+        return out;
+    }
+
+    /**
+     * Generates sequences on the given ForkJoinPool and writes them one per line in order, the same lines as
+     * writing every sequence of sample.
+     * O(samples * k / threads) time, O(MAX_BUFFERED_IDS) memory
+     *
+     * @param seed - first word of every sequence
+     * @param sequences - number of sequences
+     * @param k - words per sequence, including the seed
+     * @param masterSeed - seed every sequence's random generator is split from
+     * @param pool - pool the sequences are generated on
+     * @param writer - writer of the lines
+     * @throws IOException - if writing fails
+     */
+    public void write(String seed, int sequences, int k, long masterSeed, ForkJoinPool pool, WordWriter writer) throws IOException {
+        SplittableRandom master = new SplittableRandom(masterSeed);
+        byte[] newLine = {'\n'};
+        int block = Math.max(1, MAX_BUFFERED_IDS / Math.max(1, k));
+        for (int start = 0; start < sequences; start += block) {
+            //same splits in the same order as sample
+            int size = Math.min(block, sequences - start);
+            SplittableRandom[] randoms = new SplittableRandom[size];
+            for (int i = 0; i < size; i++)
+                randoms[i] = master.split();
+
+            //too long to hold, streamed on this thread
+            if (k > MAX_BUFFERED_IDS) {
+                writer.writeAll(new WordIterator(model, seed, k, true, randoms[0]), seed);
+                writer.write(newLine, 0, 1);
+                continue;
+            }
+
+            int[][] out = new int[size][];
+            pool.invoke(new SampleTask(seed, k, randoms, out, 0, size));
+            for (int[] sequence : out) {
+                writer.writeAll(Arrays.stream(sequence).iterator(), seed);
+                writer.write(newLine, 0, 1);
+            }
+        }
+        writer.flush();
+    }
+
+    /**
+     * Returns the words of one sequence.
+     *
+     * @param sequence - word ids returned by sample
+     * @param seed - seed the sequence was generated from, the word of id -1
+     * @return - words of the sequence
+     */
+    public LinkedList<String> wordsOf(int[] sequence, String seed) {
+        LinkedList<String> out = new LinkedList<>();
+        for (int id : sequence)
+            out.addLast(id < 0 ? seed : model.wordOf(id));
+        return out;
+    }
+
+    /**
+     * Generates a range of sequences, splitting it in half while it is large. Tasks are never serialized.
+     */
+    @SuppressWarnings("serial")
+    private class SampleTask extends RecursiveAction {
+        private final String seed;
+        private final int k;
+        private final SplittableRandom[] randoms;
+        private final int[][] out;
+        private final int start;
+        private final int end;
+
+        private SampleTask(String seed, int k, SplittableRandom[] randoms, int[][] out, int start, int end) {
+            this.seed = seed;
+            this.k = k;
+            this.randoms = randoms;
+            this.out = out;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected void compute() {
+            if (end - start > MIN_SEQUENCES_PER_TASK) {
+                int middle = (start + end) >>> 1;
+                invokeAll(new SampleTask(seed, k, randoms, out, start, middle),
+                        new SampleTask(seed, k, randoms, out, middle, end));
+                return;
+            }
+
+            //each sequence only touches its own generator and row
+            for (int i = start; i < end; i++) {
+                int[] sequence = new int[k];
+                WordIterator words = new WordIterator(model, seed, k, true, randoms[i]);
+                for (int j = 0; j < k; j++)
+                    sequence[j] = words.nextInt();
+                out[i] = sequence;
+            }
+        }
+    }
+}
@@ -0,0 +1,278 @@
+package comprehensive;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Builds the model of words and their successors in three stages on three threads, so reading,
+ * tokenizing and counting overlap instead of taking turns on one thread.
+ * <ol>
+ *     <li>The reader fills blocks of bytes from the input.</li>
+ *     <li>The tokenizer turns the bytes into blocks of word ids, giving new words their ids.</li>
+ *     <li>The counter adds every pair of consecutive ids to a BigramTable.</li>
+ * </ol>
+ * Stages are joined by bounded queues, so a fast stage waits for a slow one instead of filling memory.
+ * Every wait is counted, showing which stage holds the others back.
+ *
+ * @author Elijah Tolton and Canon Curtis
+ * @version 10/18/2026
+ */
+public class PipelinedModelBuilder {
+    //bytes per block handed from the reader to the tokenizer
+    private static final int BYTE_BLOCK_SIZE = 1 << 20;
+    //word ids per block handed from the tokenizer to the counter
+    private static final int ID_BLOCK_SIZE = 1 << 16;
+    //blocks each queue holds before its producer waits
+    private static final int QUEUE_CAPACITY = 4;
+
+    //marks the end of a queue
+    private static final byte[] END_OF_BYTES = new byte[0];
+    private static final int[] END_OF_IDS = new int[0];
+
+    private final BlockingQueue<byte[]> byteBlocks = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final BlockingQueue<int[]> idBlocks = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final Vocabulary vocabulary = new Vocabulary();
+    private volatile Throwable failure;
+    private boolean built;
+
+    private final Stage reader = new Stage("reader");
+    private final Stage tokenizer = new Stage("tokenizer");
+    private final Stage counter = new Stage("counter");
+
+    /**
+     * Reads every word of the input and counts each (previous word, next word) pair.
+     * A builder builds one model.
+     * O(input size), the same result as reading the input on one thread
+     *
+     * @param in - UTF-8 text, closed when it is used up
+     * @return - model of the text
+     * @throws IOException - if the input cannot be read
+     */
+    public BigramModel build(InputStream in) throws IOException {
+        return build(in, null);
+    }
+
+    /**
+     * Reads every word of the input and counts each pair, keeping the pair table within the memory
+     * budget of pruning and removing its rare pairs before the model is sorted.
+     *
+     * @param in - UTF-8 text, closed when it is used up
+     * @param pruning - pruning of the pair table, or null to keep every pair
+     * @return - model of the text
+     * @throws IOException - if the input cannot be read
+     */
+    public BigramModel build(InputStream in, ModelPruning pruning) throws IOException {
+        built = true;
+        Thread readerThread = Thread.ofPlatform().daemon().name("pipeline-reader").start(() -> read(in));
+        Thread tokenizerThread = Thread.ofPlatform().daemon().name("pipeline-tokenizer").start(this::tokenize);
+
+        //count on the calling thread
+        BigramTable table;
+        try {
+            table = count(pruning);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("interrupted while counting");
+        } finally {
+            readerThread.interrupt();
+            tokenizerThread.interrupt();
+        }
+
+        if (failure instanceof IOException e)
+            throw e;
+        if (failure instanceof RuntimeException e)
+            throw e;
+        if (failure != null)
+            throw new IOException(failure);
+        if (pruning != null)
+            pruning.beforeFreeze(table);
+        return new BigramModel(vocabulary, table);
+    }
+
+    /**
+     * Returns one line per stage with the blocks it took and passed on and how often and how long it waited,
+     * either for an empty queue to fill or for a full queue to drain.
+     *
+     * @return - report of every stage, or null if build was never called
+     */
+    public String stallReport() {
+        if (!built)
+            return null;
+        return reader + System.lineSeparator() + tokenizer + System.lineSeparator() + counter;
+    }
+
+    /**
+     * Reader stage, fills byte blocks until the end of the input.
+     */
+    private void read(InputStream in) {
+        try (in) {
+            while (true) {
+                byte[] block = new byte[BYTE_BLOCK_SIZE];
+                int filled = in.readNBytes(block, 0, BYTE_BLOCK_SIZE);
+                if (filled == 0)
+                    break;
+                reader.put(byteBlocks, filled == BYTE_BLOCK_SIZE ? block : Arrays.copyOf(block, filled));
+            }
+        } catch (InterruptedException e) {
+            //counter stopped early
+            return;
+        } catch (Throwable e) {
+            failure = e;
+        }
+        putEnd(byteBlocks, END_OF_BYTES);
+    }
+
+    /**
+     * Tokenizer stage, turns byte blocks into blocks of word ids.
+     */
+    private void tokenize() {
+        try {
+            WordTokenizer words = new WordTokenizer(new BlockInputStream());
+            int[] block = new int[ID_BLOCK_SIZE];
+            int filled = 0;
+            int id;
+            while ((id = words.nextId(vocabulary)) >= 0) {
+                block[filled++] = id; //O(1) average
+                if (filled == ID_BLOCK_SIZE) {
+                    tokenizer.put(idBlocks, block);
+                    block = new int[ID_BLOCK_SIZE];
+                    filled = 0;
+                }
+            }
+            if (filled > 0)
+                tokenizer.put(idBlocks, Arrays.copyOf(block, filled));
+        } catch (InterruptedException | InterruptedIOException e) {
+            //counter stopped early
+            return;
+        } catch (Throwable e) {
+            failure = e;
+        }
+        putEnd(idBlocks, END_OF_IDS);
+    }
+
+    /**
+     * Counter stage, adds every pair of consecutive ids to the table.
+     */
+    private BigramTable count(ModelPruning pruning) throws InterruptedException {
+        BigramTable table = new BigramTable();
+        if (pruning != null)
+            pruning.prepare(table);
+        //last id of the previous block, so pairs crossing blocks are counted
+        int prev = -1;
+        int[] block;
+        while ((block = counter.take(idBlocks)) != END_OF_IDS) {
+            for (int next : block) {
+                if (prev >= 0)
+                    table.increment(prev, next); //O(1) average
+                prev = next;
+            }
+        }
+        return table;
+    }
+
+    /**
+     * Puts the end marker so the next stage finishes.
+     */
+    private static <T> void putEnd(BlockingQueue<T> queue, T end) {
+        try {
+            queue.put(end);
+        } catch (InterruptedException e) {
+            //counter already stopped, nobody is waiting for the end
+        }
+    }
+
+    /**
+     * InputStream of the byte blocks the reader passes to the tokenizer.
+     */
+    private class BlockInputStream extends InputStream {
+        private byte[] block = new byte[0];
+        private int position;
+
+        @Override
+        public int read() throws IOException {
+            if (!hasRemaining())
+                return -1;
+            return block[position++] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0)
+                return 0;
+            if (!hasRemaining())
+                return -1;
+            int read = Math.min(len, block.length - position);
+            System.arraycopy(block, position, b, off, read);
+            position += read;
+            return read;
+        }
+
+        /**
+         * Waits for the next block when the current one is used up.
+         */
+        private boolean hasRemaining() throws IOException {
+            while (block != END_OF_BYTES && position == block.length) {
+                try {
+                    block = tokenizer.take(byteBlocks);
+                } catch (InterruptedException e) {
+                    throw new InterruptedIOException("interrupted while tokenizing");
+                }
+                position = 0;
+            }
+            return block != END_OF_BYTES;
+        }
+    }
+
+    /**
+     * Blocks taken and passed on by one stage and the times it had to wait on a queue.
+     */
+    private static class Stage {
+        private final String name;
+        private long blocksIn;
+        private long blocksOut;
+        private long stalls;
+        private long stallNanos;
+
+        private Stage(String name) {
+            this.name = name;
+        }
+
+        /**
+         * Passes a block to the next stage, counting a stall if the queue is full.
+         */
+        private <T> void put(BlockingQueue<T> queue, T block) throws InterruptedException {
+            blocksOut++;
+            if (queue.offer(block))
+                return;
+            long start = System.nanoTime();
+            queue.put(block);
+            stalls++;
+            stallNanos += System.nanoTime() - start;
+        }
+
+        /**
+         * Takes a block from the previous stage, counting a stall if the queue is empty.
+         */
+        private <T> T take(BlockingQueue<T> queue) throws InterruptedException {
+            blocksIn++;
+            T block = queue.poll();
+            if (block != null)
+                return block;
+            long start = System.nanoTime();
+            block = queue.take();
+            stalls++;
+            stallNanos += System.nanoTime() - start;
+            return block;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-9s %d blocks in, %d blocks out, %d stalls, %d ms stalled",
+                    name, blocksIn, blocksOut, stalls, stallNanos / 1_000_000);
+        }
+    }
+}
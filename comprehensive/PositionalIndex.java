@@ -0,0 +1,394 @@
+package comprehensive;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+/**
+ * Positional inverted index of a text file: the text as a stream of word ids, and for every word the positions
+ * in the stream where it occurs. A seed query reads only the seed's positions and the token after each, so any
+ * number of seeds are answered without reading the text again or building the model. A prompt of several words
+ * is found by walking the positions of its rarest word and checking the tokens around each.
+ * <p>
+ * Layout, every number big-endian:
+ * <ol>
+ *     <li>header: magic number, vocabulary size V, token count N, and where the position offsets,
+ *     position lists and vocabulary start,</li>
+ *     <li>N word ids, 4 bytes each,</li>
+ *     <li>V + 1 offsets of the position lists, 8 bytes each,</li>
+ *     <li>every word's position list: its number of positions, then every position as the difference from the
+ *     one before, all unsigned variable length integers,</li>
+ *     <li>every word as (byte length, UTF-8 bytes), like ModelFile.</li>
+ * </ol>
+ * The file is mapped as one MemorySegment, only the vocabulary is read onto the heap.
+ * Uses the Foreign Function and Memory API, a preview API in Java 21 (run with --enable-preview).
+ * MAGIC is a constant, so callers can recognize an index file without loading this class.
+ *
+ * @author Elijah Tolton and Canon Curtis
+ * @version 10/18/2026
+ */
+public class PositionalIndex {
+    //"TGX1" marks an index file
+    public static final int MAGIC = 0x54475831;
+
+    private static final int HEADER_SIZE = 40;
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final ValueLayout.OfInt INT = ValueLayout.JAVA_INT_UNALIGNED.withOrder(ByteOrder.BIG_ENDIAN);
+    private static final ValueLayout.OfLong LONG = ValueLayout.JAVA_LONG_UNALIGNED.withOrder(ByteOrder.BIG_ENDIAN);
+    private static final ValueLayout.OfByte BYTE = ValueLayout.JAVA_BYTE;
+
+    private final MemorySegment file;
+    private final Vocabulary vocabulary;
+    private final long tokenCount;
+    private final long offsetsStart;
+
+    private PositionalIndex(MemorySegment file, Vocabulary vocabulary, long tokenCount, long offsetsStart) {
+        this.file = file;
+        this.vocabulary = vocabulary;
+        this.tokenCount = tokenCount;
+        this.offsetsStart = offsetsStart;
+    }
+
+    /**
+     * Tokenizes a text file once and writes its index. Ids are written as they are read, then the position
+     * lists are sized in one pass over the written ids and filled in a second, so memory is O(V) for any text.
+     * O(file size + N)
+     *
+     * @param textPath - text file, a .gz file or "-" for standard input
+     * @param indexPath - path of index file to write
+     * @throws IOException - if the text cannot be read or the index cannot be written
+     */
+    public static void build(String textPath, String indexPath) throws IOException {
+        //token stream and occurrences of every word
+        Vocabulary vocabulary = new Vocabulary();
+        long[] occurrences = new long[1024];
+        long tokens = 0;
+        try (WordTokenizer tokenizer = new WordTokenizer(InputSource.open(textPath));
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(indexPath), BUFFER_SIZE))) {
+            out.write(new byte[HEADER_SIZE]);
+            int id;
+            while ((id = tokenizer.nextId(vocabulary)) >= 0) { //O(N)
+                out.writeInt(id);
+                if (id == occurrences.length)
+                    occurrences = Arrays.copyOf(occurrences, id * 2);
+                occurrences[id]++;
+                tokens++;
+            }
+        }
+
+        int words = vocabulary.size();
+        long offsetsStart = HEADER_SIZE + 4 * tokens;
+        long listsStart = offsetsStart + 8L * (words + 1);
+        try (FileChannel channel = FileChannel.open(Path.of(indexPath), StandardOpenOption.READ, StandardOpenOption.WRITE);
+             Arena arena = Arena.ofConfined()) {
+            MemorySegment ids = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE, 4 * tokens, arena);
+
+            //bytes of every position list
+            long[] listStart = new long[words + 1];
+            long[] last = new long[words];
+            for (int id = 0; id < words; id++)
+                listStart[id + 1] = varLongLength(occurrences[id]);
+            for (long position = 0; position < tokens; position++) { //O(N)
+                int id = ids.getAtIndex(INT, position);
+                listStart[id + 1] += varLongLength(position - last[id]);
+                last[id] = position;
+            }
+            for (int id = 0; id < words; id++)
+                listStart[id + 1] += listStart[id];
+
+            //offsets, then every list filled at its own cursor
+            long vocabularyStart = listsStart + listStart[words];
+            MemorySegment lists = channel.map(FileChannel.MapMode.READ_WRITE, offsetsStart, vocabularyStart - offsetsStart, arena);
+            long[] cursor = new long[words];
+            for (int id = 0; id <= words; id++)
+                lists.set(LONG, 8L * id, listStart[id]);
+            long listBase = listsStart - offsetsStart;
+            for (int id = 0; id < words; id++) {
+                cursor[id] = putVarLong(lists, listBase + listStart[id], occurrences[id]);
+                last[id] = 0;
+            }
+            for (long position = 0; position < tokens; position++) { //O(N)
+                int id = ids.getAtIndex(INT, position);
+                cursor[id] = putVarLong(lists, cursor[id], position - last[id]);
+                last[id] = position;
+            }
+
+            //vocabulary after the lists
+            channel.position(vocabularyStart);
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE));
+            byte[] bytes = new byte[64];
+            for (int id = 0; id < words; id++) {
+                int length = vocabulary.wordLength(id);
+                if (length > bytes.length)
+                    bytes = new byte[length];
+                vocabulary.copyWord(id, bytes, 0);
+                ModelFile.writeVarInt(out, length);
+                out.write(bytes, 0, length);
+            }
+            out.flush();
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(MAGIC).putInt(words).putLong(tokens).putLong(offsetsStart).putLong(listsStart).putLong(vocabularyStart);
+            channel.write(header.flip(), 0);
+        }
+    }
+
+    /**
+     * Maps an index file into memory of its own automatic arena, freed once the index is no longer reachable.
+     *
+     * @param indexPath - index file written by build
+     * @return - index of the text
+     * @throws IOException - if the file cannot be read or is not an index file
+     */
+    public static PositionalIndex open(String indexPath) throws IOException {
+        return open(indexPath, Arena.ofAuto());
+    }
+
+    /**
+     * Maps an index file and reads its vocabulary.
+     * O(V)
+     *
+     * @param indexPath - index file written by build
+     * @param arena - owner of the mapping, the index must not be used after it is closed
+     * @return - index of the text
+     * @throws IOException - if the file cannot be read or is not an index file
+     */
+    public static PositionalIndex open(String indexPath, Arena arena) throws IOException {
+        try (FileChannel channel = FileChannel.open(Path.of(indexPath), StandardOpenOption.READ)) {
+            MemorySegment file = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size(), arena);
+            if (file.byteSize() < HEADER_SIZE || file.get(INT, 0) != MAGIC)
+                throw new IOException(indexPath + " is not an index file");
+            int words = file.get(INT, 4);
+            long tokens = file.get(LONG, 8);
+            long offsetsStart = file.get(LONG, 16);
+            long vocabularyStart = file.get(LONG, 32);
+
+            Vocabulary vocabulary = new Vocabulary();
+            long position = vocabularyStart;
+            byte[] bytes = new byte[64];
+            for (int id = 0; id < words; id++) {
+                long length = getVarLong(file, position);
+                position += varLongLength(length);
+                if (length > bytes.length)
+                    bytes = new byte[(int) length];
+                MemorySegment.copy(file, BYTE, position, bytes, 0, (int) length);
+                position += length;
+                vocabulary.idOf(bytes, 0, (int) length, Vocabulary.hash(bytes, 0, (int) length));
+            }
+            return new PositionalIndex(file, vocabulary, tokens, offsetsStart);
+        }
+    }
+
+    /**
+     * Counts every word that comes right after the prompt, reading only the positions of the prompt's rarest word
+     * and the tokens around them. The prompt is split into words like the text, so "The Whale," is "the whale".
+     * O(W * P) where W is the number of positions of the rarest word and P the number of words in the prompt
+     *
+     * @param prompt - one or more words
+     * @return - map of words after the prompt to their occurrences, empty if the prompt never occurs
+     */
+    public HashMap<String, KeyValuePair> successors(String prompt) {
+        HashMap<String, KeyValuePair> map = new HashMap<>();
+        int[] ids = idsOf(prompt);
+        if (ids == null)
+            return map;
+
+        //rarest word has the fewest positions to check
+        int anchor = 0;
+        for (int i = 1; i < ids.length; i++)
+            if (occurrences(ids[i]) < occurrences(ids[anchor]))
+                anchor = i;
+
+        PrimitiveIterator.OfLong positions = positions(ids[anchor]);
+        while (positions.hasNext()) {
+            long start = positions.nextLong() - anchor;
+            long after = start + ids.length;
+            if (start < 0 || after >= tokenCount || !matches(ids, start))
+                continue;
+            String next = vocabulary.wordOf(tokenAt(after));
+            KeyValuePair pair = map.get(next); //O(1) average
+            if (pair != null)
+                pair.incrementOccurrence();
+            else
+                map.put(next, new KeyValuePair(next, 1));
+        }
+        return map;
+    }
+
+    /**
+     * Counts every pair of consecutive tokens into a BigramModel, without tokenizing the text again.
+     * O(N + B log N)
+     *
+     * @return - model of the text
+     */
+    public BigramModel buildModel() {
+        BigramTable table = new BigramTable();
+        for (long position = 1; position < tokenCount; position++) //O(N)
+            table.increment(tokenAt(position - 1), tokenAt(position));
+        return new BigramModel(vocabulary, table);
+    }
+
+    /**
+     * Returns the positions of the word with the given id in increasing order, decoded as they are read.
+     *
+     * @param id - word id
+     * @return - iterator over the positions of the word
+     */
+    public PrimitiveIterator.OfLong positions(int id) {
+        return new Positions(listStart(id));
+    }
+
+    /**
+     * Returns the number of times the word with the given id occurs.
+     * O(1)
+     */
+    public long occurrences(int id) {
+        return getVarLong(file, listStart(id));
+    }
+
+    /**
+     * Returns the id of the word at a position of the text.
+     * O(1)
+     */
+    public int tokenAt(long position) {
+        return file.get(INT, HEADER_SIZE + 4 * position);
+    }
+
+    /**
+     * Returns the number of words in the text.
+     */
+    public long tokenCount() {
+        return tokenCount;
+    }
+
+    /**
+     * Returns the words of the text and their ids.
+     */
+    Vocabulary vocabulary() {
+        return vocabulary;
+    }
+
+    /**
+     * Returns the ids of the words of a prompt, or null if it has no words or a word isn't in the text.
+     */
+    private int[] idsOf(String prompt) {
+        ArrayList<Integer> ids = new ArrayList<>();
+        try (WordTokenizer tokenizer = new WordTokenizer(new ByteArrayInputStream(prompt.getBytes(StandardCharsets.UTF_8)))) {
+            String word;
+            while ((word = tokenizer.nextWord()) != null) {
+                int id = vocabulary.find(word);
+                if (id < 0)
+                    return null;
+                ids.add(id);
+            }
+        } catch (IOException e) {
+            //a byte array never fails to read
+            throw new IllegalStateException(e);
+        }
+        return ids.isEmpty() ? null : ids.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Returns true if the prompt's ids occur starting at the position.
+     */
+    private boolean matches(int[] ids, long start) {
+        for (int i = 0; i < ids.length; i++)
+            if (tokenAt(start + i) != ids[i])
+                return false;
+        return true;
+    }
+
+    /**
+     * Returns the file position of a word's position list.
+     */
+    private long listStart(int id) {
+        long listsStart = offsetsStart + 8L * (vocabulary.size() + 1);
+        return listsStart + file.get(LONG, offsetsStart + 8L * id);
+    }
+
+    /**
+     * Writes a non-negative long using 7 bits per byte, high bit set on all but the last byte.
+     *
+     * @return - position after the last byte written
+     */
+    private static long putVarLong(MemorySegment segment, long position, long value) {
+        while ((value & ~0x7FL) != 0) {
+            segment.set(BYTE, position++, (byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        segment.set(BYTE, position++, (byte) value);
+        return position;
+    }
+
+    /**
+     * Reads a long written by putVarLong.
+     */
+    private static long getVarLong(MemorySegment segment, long position) {
+        long value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = segment.get(BYTE, position++);
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0)
+                return value;
+        }
+    }
+
+    /**
+     * Returns the number of bytes putVarLong writes for a value.
+     */
+    private static int varLongLength(long value) {
+        int length = 1;
+        while ((value & ~0x7FL) != 0) {
+            value >>>= 7;
+            length++;
+        }
+        return length;
+    }
+
+    /**
+     * Decodes a position list one difference at a time.
+     */
+    private class Positions implements PrimitiveIterator.OfLong {
+        private long cursor;
+        private long remaining;
+        private long position;
+
+        private Positions(long listStart) {
+            remaining = getVarLong(file, listStart);
+            cursor = listStart + varLongLength(remaining);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return remaining > 0;
+        }
+
+        @Override
+        public long nextLong() {
+            if (remaining <= 0)
+                throw new NoSuchElementException("No more positions");
+            remaining--;
+            long delta = getVarLong(file, cursor);
+            cursor += varLongLength(delta);
+            position += delta;
+            return position;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package comprehensive;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * One query against a model: a seed, k and an optional mode, written as "seed k", "seed k one"
+ * or "seed k all". Used by TextGeneratorServer and BatchQuery so both read and answer queries the same way.
+ *
+ * @author Elijah Tolton and Canon Curtis
+ * @version 10/18/2026
+ */
+public class Query {
+    private final String seed;
+    private final int k;
+    private final Boolean allOrOne; // null doesn't exist, true if "all" false if "one"
+
+    /**
+     * Creates a query.
+     *
+     * @param seed - seed word
+     * @param k - number of words to output, non-negative
+     * @param allOrOne - null for the k most probable words, true for "all", false for "one"
+     */
+    public Query(String seed, int k, Boolean allOrOne) {
+        this.seed = seed;
+        this.k = k;
+        this.allOrOne = allOrOne;
+    }
+
+    /**
+     * Reads a query from one line of text.
+     *
+     * @param line - "seed k" optionally followed by "one" or "all"
+     * @return - query of the line
+     * @throws IllegalArgumentException - if the line is not a query
+     */
+    public static Query parse(String line) {
+        String[] parts = line.trim().split("\\s+");
+        if (parts.length < 2 || parts.length > 3)
+            throw new IllegalArgumentException("expected: seed k [one|all]");
+
+        int k;
+        try {
+            k = Integer.parseInt(parts[1]);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("k must be an int");
+        }
+        if (k < 0)
+            throw new IllegalArgumentException("k must be non-negative");
+
+        Boolean allOrOne = null;
+        if (parts.length == 3) {
+            if (!parts[2].equals("one") && !parts[2].equals("all"))
+                throw new IllegalArgumentException("mode must be one or all");
+            allOrOne = parts[2].equals("all");
+        }
+        return new Query(parts[0], k, allOrOne);
+    }
+
+    /**
+     * Answers this query from a model.
+     *
+     * @param model - model to read, never changed
+     * @return - output words separated by spaces
+     */
+    public String answer(BigramModel model) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            write(model, out);
+        } catch (IOException e) {
+            //a byte array never fails to write
+            throw new UncheckedIOException(e);
+        }
+        return out.toString(StandardCharsets.UTF_8).trim();
+    }
+
+    /**
+     * Writes the answer of this query as words each followed by a space, generated as they are written,
+     * so memory stays the same for any k.
+     * O(k) besides building the model's structures
+     *
+     * @param model - model to read, never changed
+     * @param out - where the words are written, flushed but not closed
+     * @throws IOException - if writing fails
+     */
+    public void write(BigramModel model, OutputStream out) throws IOException {
+        new TextGeneratorFunctor(model, seed, k, allOrOne).writeOutput(out);
+    }
+
+    /**
+     * Returns the seed word.
+     */
+    public String getSeed() {
+        return seed;
+    }
+
+    /**
+     * Returns the number of words to output.
+     */
+    public int getK() {
+        return k;
+    }
+
+    /**
+     * Getter for allOrOne value
+     * @return - Boolean, null for the k most probable words
+     */
+    public Boolean getAllOrOne() {
+        return allOrOne;
+    }
+}
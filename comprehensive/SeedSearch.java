@@ -0,0 +1,367 @@
+package comprehensive;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+
+/**
+ * Counts the words after the seed without tokenizing the rest of the file. The file is mapped in pieces of up to
+ * 1 GB and searched for the seed's bytes, ignoring ASCII case, with Boyer-Moore-Horspool, which skips
+ * ahead up to the seed's length at every mismatch. Only a match is looked at closely:
+ * <ul>
+ *     <li>it must start a piece of text, at the start of the file or after whitespace,</li>
+ *     <li>it must end the piece's first run of word characters,</li>
+ *     <li>the word after it is read with the rules of WordTokenizer, skipping pieces without a word.</li>
+ * </ul>
+ * So the counts are the same as tokenizing every word and comparing it with the seed.
+ * <p>
+ * The Kelvin sign and capital dotted I lowercase to "k" and "i" but are not ASCII, so the search cannot find a
+ * seed spelled with them. When the seed has a "k" or "i", every byte the search passes is also checked for
+ * either character in the same pass, and if the file has one anywhere, search gives up and returns null so the
+ * caller tokenizes the file instead. Malformed UTF-8 that spells an ASCII
+ * letter in more bytes than needed is not searched for either, WordTokenizer decodes it as that letter.
+ *
+ * @author Elijah Tolton and Canon Curtis
+ * @version 10/18/2026
+ */
+public class SeedSearch {
+    //largest piece of the file mapped at once, a MappedByteBuffer holds at most 2^31 - 1 bytes
+    private static final long MAX_MAPPING = 1L << 30;
+    //bytes before a position kept in the piece it maps, looking back never maps again
+    private static final long LOOK_BACK = 1L << 16;
+    //UTF-8 bytes of the Kelvin sign and capital dotted I
+    private static final byte[] KELVIN_SIGN = {(byte) 0xE2, (byte) 0x84, (byte) 0xAA};
+    private static final byte[] CAPITAL_DOTTED_I = {(byte) 0xC4, (byte) 0xB0};
+
+    /**
+     * Counts every word that comes right after the seed in a plain text file.
+     * O(file size / length of seed) bytes looked at for a rare seed, plus O(word after) for every match
+     *
+     * @param path - plain UTF-8 text file
+     * @param seed - word whose successors are counted
+     * @return - map of words after seed to their occurrences, or null if the file has to be tokenized instead
+     * @throws IOException - if the file cannot be read
+     */
+    public static HashMap<String, KeyValuePair> countSuccessors(Path path, String seed) throws IOException {
+        HashMap<String, KeyValuePair> map = new HashMap<>();
+        byte[] pattern = seed.getBytes(StandardCharsets.UTF_8);
+        //words are only ever [a-z0-9_], nothing else can equal the seed
+        if (pattern.length == 0)
+            return map;
+        for (byte b : pattern)
+            if (WordTokenizer.toLowerWordChar(b & 0xFF) != b)
+                return map;
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < pattern.length)
+                return map;
+            MappedText text = new MappedText(channel, size);
+            //seed could be spelled with characters the byte search doesn't see
+            SpellingGuard guard = seed.indexOf('k') >= 0 || seed.indexOf('i') >= 0
+                    ? new SpellingGuard(seed.indexOf('k') >= 0, seed.indexOf('i') >= 0) : null;
+
+            int[] shift = shiftTable(pattern, true);
+            long match = search(text, pattern, shift, 0, guard);
+            while (match >= 0) {
+                long end = match + pattern.length;
+                if (startsPiece(text, match) && endsWord(text, end)) {
+                    String next = new NextWord(text, end).read(); //only the word after the seed is tokenized
+                    if (next != null) {
+                        KeyValuePair pair = map.get(next); //O(1) average
+                        if (pair != null)
+                            pair.incrementOccurrence();
+                        else
+                            map.put(next, new KeyValuePair(next, 1));
+                    }
+                }
+                match = search(text, pattern, shift, match + 1, guard);
+            }
+            //bytes after the last window are checked too
+            if (guard != null && guard.scanTo(text, size))
+                return null;
+        } catch (UncheckedIOException e) {
+            //mapping a later piece failed
+            throw e.getCause();
+        }
+        return map;
+    }
+
+    /**
+     * Boyer-Moore-Horspool search. The pattern is compared from its last byte, and at a mismatch the window moves
+     * by the shift of the text byte under the last position of the pattern.
+     * A pattern that ignores case is lowercase and is compared with lowercased text.
+     * A guard, if given, looks at every byte up to the end of each window before it is compared.
+     * O(N / M) best case, O(N * M) worst case, O(N) with a guard
+     *
+     * @return - position of the match, or -1 if there is none or the guard found a character
+     */
+    private static long search(MappedText text, byte[] pattern, int[] shift, long from, SpellingGuard guard) {
+        int last = pattern.length - 1;
+        long limit = text.size() - pattern.length;
+        long j = from;
+        while (j <= limit) {
+            if (guard != null && guard.scanTo(text, j + pattern.length))
+                return -1;
+            int i = last;
+            while (i >= 0 && fold(text.get(j + i), shift) == pattern[i])
+                i--;
+            if (i < 0)
+                return j;
+            j += shift[text.get(j + last) & 0xFF];
+        }
+        return -1;
+    }
+
+    /**
+     * Lowercases an ASCII letter if the shift table ignores case. The table's last entry marks ignoring case.
+     */
+    private static byte fold(byte b, int[] shift) {
+        return shift[256] != 0 && b >= 'A' && b <= 'Z' ? (byte) (b + ('a' - 'A')) : b;
+    }
+
+    /**
+     * Returns how far the window moves when each byte is under the last position of the pattern:
+     * the distance from its last occurrence before the last position to the end, or the pattern's length.
+     * Entry 256 is 1 if the search ignores case.
+     */
+    private static int[] shiftTable(byte[] pattern, boolean ignoreCase) {
+        int[] shift = new int[257];
+        for (int b = 0; b < 256; b++)
+            shift[b] = pattern.length;
+        for (int i = 0; i < pattern.length - 1; i++) {
+            int distance = pattern.length - 1 - i;
+            shift[pattern[i] & 0xFF] = distance;
+            //both cases of a letter
+            if (ignoreCase && pattern[i] >= 'a' && pattern[i] <= 'z')
+                shift[pattern[i] - ('a' - 'A')] = distance;
+        }
+        shift[256] = ignoreCase ? 1 : 0;
+        return shift;
+    }
+
+    /**
+     * Returns true if a piece of text starts at the position: it is the start of the file or the code point
+     * before it is whitespace. A lead byte always starts a code point, so the code point before is found by
+     * looking back over at most three continuation bytes to its lead byte.
+     */
+    private static boolean startsPiece(MappedText text, long position) {
+        if (position == 0)
+            return true;
+        int before = text.get(position - 1) & 0xFF;
+        if (before < 0x80)
+            return WordTokenizer.isWhitespace(before);
+        //a lead byte with nothing after it decodes to U+FFFD
+        if ((before & 0xC0) != 0x80)
+            return false;
+
+        for (int length = 2; length <= 4 && position - length >= 0; length++) {
+            int lead = text.get(position - length) & 0xFF;
+            if ((lead & 0xC0) == 0x80)
+                continue;
+            //the lead byte's code point has to end right before the position
+            NextWord decoder = new NextWord(text, position - length);
+            int c = decoder.nextCodePoint();
+            return decoder.position == position && WordTokenizer.isWhitespace(c);
+        }
+        return false;
+    }
+
+    /**
+     * Returns true if the code point at the position is not a word character, so the word before it ends there.
+     */
+    private static boolean endsWord(MappedText text, long position) {
+        int next = new NextWord(text, position).nextCodePoint();
+        return next < 0 || WordTokenizer.toLowerWordChar(next) < 0;
+    }
+
+    /**
+     * Looks at every byte of the text once, in order, for the Kelvin sign or capital dotted I. The search calls it
+     * with the end of its window, so the bytes it skips are checked while their piece is still mapped.
+     */
+    private static class SpellingGuard {
+        private final boolean kelvinSign;
+        private final boolean capitalDottedI;
+        //bytes before this position have been looked at
+        private long scanned;
+        private boolean found;
+
+        private SpellingGuard(boolean kelvinSign, boolean capitalDottedI) {
+            this.kelvinSign = kelvinSign;
+            this.capitalDottedI = capitalDottedI;
+        }
+
+        /**
+         * Looks at the bytes before end that haven't been looked at.
+         * O(end - bytes looked at so far)
+         *
+         * @return - true if either character has been found
+         */
+        private boolean scanTo(MappedText text, long end) {
+            for (; scanned < end && !found; scanned++) {
+                byte b = text.get(scanned);
+                if (kelvinSign && b == KELVIN_SIGN[0])
+                    found = startsWith(text, scanned, KELVIN_SIGN);
+                else if (capitalDottedI && b == CAPITAL_DOTTED_I[0])
+                    found = startsWith(text, scanned, CAPITAL_DOTTED_I);
+            }
+            return found;
+        }
+
+        /**
+         * Returns true if the bytes at the position are the given sequence.
+         */
+        private static boolean startsWith(MappedText text, long position, byte[] sequence) {
+            if (position + sequence.length > text.size())
+                return false;
+            for (int i = 1; i < sequence.length; i++)
+                if (text.get(position + i) != sequence[i])
+                    return false;
+            return true;
+        }
+    }
+
+    /**
+     * Bytes of a file read through MappedByteBuffers, mapping the piece around a position the first time a byte
+     * outside the current piece is read. Each piece starts LOOK_BACK bytes before that position.
+     */
+    static class MappedText {
+        private final FileChannel channel;
+        private final long size;
+        private MappedByteBuffer piece;
+        private long pieceStart;
+        private long pieceEnd;
+
+        MappedText(FileChannel channel, long size) {
+            this.channel = channel;
+            this.size = size;
+        }
+
+        /**
+         * Returns the byte at a position of the file.
+         * O(1), mapping a piece when the position is outside the current one
+         *
+         * @throws UncheckedIOException - if the piece cannot be mapped
+         */
+        byte get(long position) {
+            if (position < pieceStart || position >= pieceEnd)
+                map(position);
+            return piece.get((int) (position - pieceStart));
+        }
+
+        /**
+         * Returns the number of bytes in the file.
+         */
+        long size() {
+            return size;
+        }
+
+        /**
+         * Maps the piece holding a position.
+         */
+        private void map(long position) {
+            pieceStart = Math.max(0, position - LOOK_BACK);
+            pieceEnd = Math.min(size, pieceStart + MAX_MAPPING);
+            try {
+                piece = channel.map(FileChannel.MapMode.READ_ONLY, pieceStart, pieceEnd - pieceStart);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * Reads the first word after a position with the rules of WordTokenizer.nextToken, decoding UTF-8
+     * the same way, including malformed bytes.
+     */
+    private static class NextWord {
+        private final MappedText text;
+        private long position;
+
+        private NextWord(MappedText text, long position) {
+            this.text = text;
+            this.position = position;
+        }
+
+        /**
+         * Returns the next word, or null if the file ends first.
+         */
+        private String read() {
+            StringBuilder word = new StringBuilder();
+            int c = nextCodePoint();
+            while (true) {
+                //skip whitespace between pieces
+                while (c >= 0 && WordTokenizer.isWhitespace(c))
+                    c = nextCodePoint();
+                if (c < 0)
+                    return null;
+
+                //keep the first run of word characters of this piece
+                while (c >= 0 && !WordTokenizer.isWhitespace(c)) {
+                    int lower = WordTokenizer.toLowerWordChar(c);
+                    if (lower < 0)
+                        break;
+                    word.append((char) lower);
+                    //lowercase of capital dotted I ends the word
+                    if (c == 0x0130)
+                        break;
+                    c = nextCodePoint();
+                }
+
+                //rest of the piece is dropped
+                while (c >= 0 && !WordTokenizer.isWhitespace(c))
+                    c = nextCodePoint();
+
+                if (!word.isEmpty())
+                    return word.toString();
+            }
+        }
+
+        /**
+         * Decodes the next code point like WordTokenizer, malformed bytes decode to U+FFFD.
+         *
+         * @return - next code point, or -1 at the end of the file
+         */
+        private int nextCodePoint() {
+            if (position == text.size())
+                return -1;
+            int b = text.get(position++) & 0xFF;
+            if (b < 0x80)
+                return b;
+
+            int extra;
+            int cp;
+            if (b >= 0xF8) {
+                return 0xFFFD;
+            } else if (b >= 0xF0) {
+                extra = 3;
+                cp = b & 0x07;
+            } else if (b >= 0xE0) {
+                extra = 2;
+                cp = b & 0x0F;
+            } else if (b >= 0xC0) {
+                extra = 1;
+                cp = b & 0x1F;
+            } else {
+                return 0xFFFD;
+            }
+
+            for (int i = 0; i < extra; i++) {
+                if (position == text.size())
+                    return 0xFFFD;
+                int next = text.get(position) & 0xFF;
+                //continuation bytes always look like 10xxxxxx, anything else starts the next code point
+                if ((next & 0xC0) != 0x80)
+                    return 0xFFFD;
+                position++;
+                cp = (cp << 6) | (next & 0x3F);
+            }
+            return cp;
+        }
+    }
+}
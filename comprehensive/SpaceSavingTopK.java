@@ -0,0 +1,159 @@
+package comprehensive;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Approximate k most frequent words of a stream of any length in constant memory, using the
+ * Space-Saving algorithm. At most m words are counted at once. A new word takes over the counter with
+ * the smallest count, starting from that count plus one, and remembers the count it took over as its error.
+ * <p>
+ * Bounds, where N is the number of words offered so far:
+ * <ul>
+ *     <li>a counted word occurred at least count - error and at most count times,</li>
+ *     <li>every error and every word that isn't counted occurred at most minCount() &lt;= N / m times,</li>
+ *     <li>so any word occurring more than N / m times is always counted.</li>
+ * </ul>
+ * Counters sit in an IndexedBinaryMaxHeap ordered smallest count first, so the counter to take over is
+ * on top and a counter that grows moves down in O(log m). Results can be read at any time.
+ *
+ * @author Elijah Tolton and Canon Curtis
+ * @version 10/18/2026
+ */
+public class SpaceSavingTopK {
+    private final int capacity;
+    //counter of every counted word
+    private final HashMap<String, Counter> counters = new HashMap<>();
+    //max heap under the reversed order, so the top is the smallest counter
+    private final IndexedBinaryMaxHeap<Counter> heap =
+            new IndexedBinaryMaxHeap<>((a, b) -> Long.compare(b.count, a.count));
+    private long total;
+
+    /**
+     * Creates a counter of at most m words.
+     *
+     * @param m - number of counters, more counters give smaller errors
+     * @throws IllegalArgumentException - if m is not positive
+     */
+    public SpaceSavingTopK(int m) {
+        if (m <= 0)
+            throw new IllegalArgumentException("number of counters must be positive");
+        capacity = m;
+    }
+
+    /**
+     * Counts one occurrence of word.
+     * O(log m)
+     *
+     * @param word - next word of the stream
+     */
+    public void offer(String word) {
+        total++;
+        Counter counter = counters.get(word); //O(1) average
+        if (counter != null) {
+            counter.count++;
+        } else if (counters.size() < capacity) {
+            counter = new Counter(word);
+            counter.count = 1;
+            counters.put(word, counter);
+            heap.add(counter); //O(log m)
+            return;
+        } else {
+            //take over the smallest counter
+            counter = heap.peek();
+            counters.remove(counter.word);
+            counter.word = word;
+            counter.error = counter.count;
+            counter.count++;
+            counters.put(word, counter);
+        }
+        heap.update(counter); //O(log m)
+    }
+
+    /**
+     * Returns the counted words with the k largest counts, largest first, ties broken like KeyValuePair.
+     * O(m log k)
+     *
+     * @param k - number of words wanted
+     * @return - up to k words paired with their estimated occurrences, an upper bound of the true occurrences
+     */
+    public List<KeyValuePair> topK(int k) {
+        TopKSelector<KeyValuePair> selector = TopKSelector.naturalOrder(k);
+        for (Counter counter : counters.values())
+            selector.offer(new KeyValuePair(counter.word, (int) Math.min(Integer.MAX_VALUE, counter.count)));
+        return selector.extractSorted();
+    }
+
+    /**
+     * Returns the counted words that are certainly among the k most frequent: their lower bound is at
+     * least the estimate of the word ranked k + 1, which bounds every word ranked below k. Largest first.
+     * O(m log m)
+     *
+     * @param k - number of words wanted
+     * @return - words certainly among the k most frequent, possibly fewer than k
+     */
+    public List<KeyValuePair> guaranteedTopK(int k) {
+        List<KeyValuePair> ranked = topK(counters.size());
+        //most times any word outside the top k could have occurred
+        long threshold = ranked.size() > k ? ranked.get(k).getOccurrence() : minCount();
+
+        ArrayList<KeyValuePair> out = new ArrayList<>();
+        for (int i = 0; i < Math.min(k, ranked.size()); i++)
+            if (lowerBound(ranked.get(i).getWord()) >= threshold)
+                out.add(ranked.get(i));
+        return out;
+    }
+
+    /**
+     * Returns the fewest times word certainly occurred, count - error, or 0 if it isn't counted.
+     */
+    public long lowerBound(String word) {
+        Counter counter = counters.get(word);
+        return counter == null ? 0 : counter.count - counter.error;
+    }
+
+    /**
+     * Returns the most times word could have occurred, its count, or minCount() if it isn't counted.
+     */
+    public long upperBound(String word) {
+        Counter counter = counters.get(word);
+        return counter == null ? minCount() : counter.count;
+    }
+
+    /**
+     * Returns the smallest count, the most times any word that isn't counted could have occurred.
+     * 0 until all m counters are in use, never more than total() / m.
+     */
+    public long minCount() {
+        return counters.size() < capacity ? 0 : heap.peek().count;
+    }
+
+    /**
+     * Returns the number of words offered so far.
+     */
+    public long total() {
+        return total;
+    }
+
+    /**
+     * Returns m, the most words counted at once.
+     */
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Estimated occurrences of one word and the count it started from.
+     * Keeps its own place in the heap, so it stays put when its word changes.
+     */
+    private static class Counter extends IndexedBinaryMaxHeap.Entry {
+        private String word;
+        private long count;
+        private long error;
+
+        private Counter(String word) {
+            this.word = word;
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package comprehensive;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.IntFunction;
+
+/**
+ * Bounded cache of the structures built from one row of a model: the alias table that samples the row
+ * and the row as an array of KeyValuePairs. A resident process such as TextGeneratorServer answers many
+ * queries about the same hot words, and the cache keeps their structures between queries.
+ * <p>
+ * Entries are spread over stripes by word id, each stripe a LinkedHashMap in access order behind its own lock,
+ * so threads asking about different words rarely wait for each other. Each stripe holds an equal share of the
+ * memory budget and evicts its least recently used entries when it goes over. Entry sizes are estimates of
+ * the arrays they hold. Structures are built outside the lock, two threads missing the same word at once both
+ * build it and one copy is kept.
+ *
+ * @author Elijah Tolton and Canon Curtis
+ * @version 10/18/2026
+ */
+public class SuccessorCache {
+    /**
+     * Budget of the cache every model starts with, 64 MB.
+     */
+    public static final long DEFAULT_BUDGET = 64L << 20;
+
+    private static final int STRIPES = 16;
+    //estimated bytes of an entry besides its arrays, key, map node and array headers
+    private static final long ENTRY_OVERHEAD = 96;
+    //a KeyValuePair and the reference to it, the word's String belongs to the vocabulary
+    private static final long PAIR_BYTES = 36;
+
+    //kinds of entry, the low bit of a key
+    private static final int ALIAS_TABLE = 0;
+    private static final int SUCCESSORS = 1;
+
+    private final long budget;
+    private final Stripe[] stripes = new Stripe[STRIPES];
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Creates an empty cache holding at most about budget bytes.
+     *
+     * @param budget - most bytes the cached structures may take up
+     * @throws IllegalArgumentException - if budget is negative
+     */
+    public SuccessorCache(long budget) {
+        if (budget < 0)
+            throw new IllegalArgumentException("cache budget must not be negative");
+        this.budget = budget;
+        for (int i = 0; i < STRIPES; i++)
+            stripes[i] = new Stripe(budget / STRIPES);
+    }
+
+    /**
+     * Returns the alias table of a row, building it with build if it isn't cached.
+     * O(1) average case on a hit, O(N) plus the build on a miss
+     *
+     * @param id - row of the table
+     * @param build - makes the table of a row
+     * @return - alias table of the row
+     */
+    public AliasTable aliasTable(int id, IntFunction<AliasTable> build) {
+        return (AliasTable) get(id, ALIAS_TABLE, build);
+    }
+
+    /**
+     * Returns the successors of a row, building them with build if they aren't cached.
+     * The array is shared by every caller, so it must not be changed.
+     *
+     * @param id - row of the successors
+     * @param build - makes the successors of a row, most probable first
+     * @return - successors of the row
+     */
+    public KeyValuePair[] successors(int id, IntFunction<KeyValuePair[]> build) {
+        return (KeyValuePair[]) get(id, SUCCESSORS, build);
+    }
+
+    /**
+     * Returns the number of lookups that found their structure.
+     */
+    public long hits() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns the number of lookups that had to build their structure.
+     */
+    public long misses() {
+        return misses.sum();
+    }
+
+    /**
+     * Returns the number of structures dropped to stay within the budget.
+     */
+    public long evictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * Returns the estimated bytes of every cached structure.
+     */
+    public long memoryBytes() {
+        long total = 0;
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                total += stripe.bytes;
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Returns the most bytes the cached structures may take up.
+     */
+    public long budget() {
+        return budget;
+    }
+
+    /**
+     * Returns the number of cached structures.
+     */
+    public int size() {
+        int total = 0;
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                total += stripe.entries.size();
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Returns the hits, misses, evictions and memory of the cache on one line.
+     */
+    @Override
+    public String toString() {
+        return String.format("cache %d hits, %d misses, %d evictions, %d entries, %d of %d bytes",
+                hits(), misses(), evictions(), size(), memoryBytes(), budget);
+    }
+
+    /**
+     * Looks up the structure of one kind for a row, building and adding it on a miss.
+     */
+    private Object get(int id, int kind, IntFunction<?> build) {
+        Long key = ((long) id << 1) | kind;
+        Stripe stripe = stripes[Vocabulary.spread(id * 0x9E3779B9) & (STRIPES - 1)];
+
+        stripe.lock.lock();
+        try {
+            Object cached = stripe.entries.get(key); //moves the entry to the most recent end
+            if (cached != null) {
+                hits.increment();
+                return cached;
+            }
+        } finally {
+            stripe.lock.unlock();
+        }
+
+        //build without holding the lock
+        misses.increment();
+        Object built = build.apply(id);
+        long bytes = bytesOf(built);
+
+        stripe.lock.lock();
+        try {
+            Object raced = stripe.entries.putIfAbsent(key, built);
+            if (raced != null)
+                return raced;
+            stripe.bytes += bytes;
+
+            //drop least recently used entries, never the one just added
+            Iterator<Map.Entry<Long, Object>> eldest = stripe.entries.entrySet().iterator();
+            while (stripe.bytes > stripe.budget && stripe.entries.size() > 1) {
+                Map.Entry<Long, Object> entry = eldest.next();
+                stripe.bytes -= bytesOf(entry.getValue());
+                eldest.remove();
+                evictions.increment();
+            }
+            //a structure bigger than the whole stripe is returned but not kept
+            if (stripe.bytes > stripe.budget) {
+                stripe.entries.remove(key);
+                stripe.bytes -= bytes;
+                evictions.increment();
+            }
+        } finally {
+            stripe.lock.unlock();
+        }
+        return built;
+    }
+
+    /**
+     * Estimated bytes of a cached structure.
+     */
+    private static long bytesOf(Object structure) {
+        if (structure instanceof AliasTable table)
+            return ENTRY_OVERHEAD + 12L * table.size(); //long threshold and int alias per column
+        return ENTRY_OVERHEAD + PAIR_BYTES * ((KeyValuePair[]) structure).length;
+    }
+
+    /**
+     * Entries of one stripe in access order, oldest first.
+     */
+    private static class Stripe {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final LinkedHashMap<Long, Object> entries = new LinkedHashMap<>(16, 0.75f, true);
+        private final long budget;
+        private long bytes;
+
+        private Stripe(long budget) {
+            this.budget = budget;
+        }
+    }
+}
@@ -1,6 +1,11 @@
 package comprehensive;
 
-import java.io.FileNotFoundException;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 
 /**
  * GPT-Negative1. Takes in arguments from the commandLine and returns k probable words
@@ -16,79 +21,162 @@ public class TextGenerator {
      * Assume "seed" is contained in input file.
      *
      * @param args -
-     *             args[0]  - First Argument File path and name of input file.
+     *             args[0]  - First Argument File path and name of input file. A .gz file is decompressed
+     *                        while it is read and "-" reads standard input.
      *             args[1] - Second Argument String the "seed" word.
      *             args[2] - Third Argument int k number of words to output. NonNegative.
      *             args[3] - Optional Fourth Argument String "all" or "one" if "one" returns most probable word.
      *                       If "all" returns random weighted word.
-     * @throws FileNotFoundException - File path is not found
+     *             args[4] - Optional Fifth Argument long seed of the random generator used by "all".
+     *             Alternatively "--compile inputFile modelFile" writes a binary model of the input file.
+     *             The model file can then be given as args[0] in place of the text file.
+     *             "--index inputFile indexFile" writes a positional index of the input file, which can also be
+     *             given as args[0] and answers seed queries, including seeds of several words, without the text.
+     *             "--serve port file" keeps the model of file in memory and answers queries on a local port,
+     *             see TextGeneratorServer.
+     *             "--batch queryFile file" answers every "seed k [one|all]" line of queryFile with one pass over file.
+     *             A leading "--parallel" builds the model of the text file on every core.
+     *             A leading "--pipelined" reads, tokenizes and counts on separate threads and prints how often
+     *             each stage waited to standard error.
+     *             A leading "--off-heap" keeps the model of "--serve" and of a query outside the Java heap,
+     *             the only option that needs --enable-preview.
+     *             A leading "--approximate m" counts the words after the seed with m Space-Saving counters
+     *             when there is no fourth argument, in constant memory.
+     *             Leading "--min-count N", "--max-successors N" and "--memory-budget MB" drop rare word pairs
+     *             while the model is built, see ModelPruning.
+     *             A leading "--order N" predicts "one" and "all" words from the previous N - 1 words, N from 2 to 5.
+     *             A leading "--cache-budget MB" caps the memory of rows the server caches between queries.
+     *             A leading "--samples N" makes "all" write N independent sequences, one per line, in parallel.
+     *             Run with -Dcomprehensive.metrics=summary or json to print phase times and counters, see Metrics.
+     * @throws IOException - File path is not found or model cannot be written
      */
-    public static void main(String[] args) throws FileNotFoundException {
-        //input arguments into constructor
-        TextGeneratorFunctor func;
-        if(args.length == 3)
-             func = new TextGeneratorFunctor(args[0], args[1],args[2]);
-        else
-            func = new TextGeneratorFunctor(args[0], args[1], args[2], args[3]);
+    @SuppressWarnings("try")
+    public static void main(String[] args) throws IOException {
+        //leading options
+        boolean parallel = false;
+        boolean pipelined = false;
+        boolean offHeap = false;
+        int approximateCounters = 0;
+        int samples = 0;
+        int order = 2;
+        int minCount = 1;
+        int maxSuccessors = Integer.MAX_VALUE;
+        long memoryBudget = Long.MAX_VALUE;
+        long cacheBudget = SuccessorCache.DEFAULT_BUDGET;
+        while(true) {
+            //number of arguments the option takes up, 0 when there are no more options
+            int used = switch(args[0]) {
+                //build model on every core
+                case "--parallel" -> { parallel = true; yield 1; }
+                //overlap reading, tokenizing and counting
+                case "--pipelined" -> { pipelined = true; yield 1; }
+                //model memory not scanned by the garbage collector
+                case "--off-heap" -> { offHeap = true; yield 1; }
+                //fixed number of counters for the words after the seed
+                case "--approximate" -> { approximateCounters = Integer.parseInt(args[1]); yield 2; }
+                //words per prediction
+                case "--order" -> { order = Integer.parseInt(args[1]); yield 2; }
+                //independent "all" sequences generated in parallel
+                case "--samples" -> { samples = Integer.parseInt(args[1]); yield 2; }
+                //pruning of rare pairs
+                case "--min-count" -> { minCount = Integer.parseInt(args[1]); yield 2; }
+                case "--max-successors" -> { maxSuccessors = Integer.parseInt(args[1]); yield 2; }
+                case "--memory-budget" -> { memoryBudget = Long.parseLong(args[1]) << 20; yield 2; }
+                //memory of the rows cached between queries
+                case "--cache-budget" -> { cacheBudget = Long.parseLong(args[1]) << 20; yield 2; }
+                default -> 0;
+            };
+            if(used == 0)
+                break;
+            args = Arrays.copyOfRange(args, used, args.length);
+        }
+        ModelPruning pruning = minCount == 1 && maxSuccessors == Integer.MAX_VALUE && memoryBudget == Long.MAX_VALUE
+                ? null : new ModelPruning(minCount, maxSuccessors, memoryBudget);
 
-        //If no fourth argument exists
-        if(func.getAllOrOne() == null){
-            int numOutput = Integer.parseInt(args[2]);
-            fourthArgNull(numOutput, func);
+        //compile text file into a model file
+        if(args[0].equals("--compile")) {
+            TextGeneratorFunctor compiler = new TextGeneratorFunctor(args[1]);
+            compiler.setParallel(parallel);
+            compiler.setPipelined(pipelined);
+            compiler.setPruning(pruning);
+            compiler.compileModel(args[2]);
+            printPipelineStalls(compiler);
+            printMetrics();
             return;
         }
 
-        //If 4th arg is one
-        if(!func.getAllOrOne())
-            fourthArgOne(func);
+        //index word positions of a text file
+        if(args[0].equals("--index")) {
+            try (Metrics.Phase phase = Metrics.start("build index")) {
+                PositionalIndex.build(args[1], args[2]);
+            }
+            printMetrics();
+            return;
+        }
 
-        //If 4th arg is all
-        if(func.getAllOrOne())
-            fourthArgAll(func);
+        //answer a file of queries in one pass
+        if(args[0].equals("--batch")) {
+            BatchQuery.read(args[1]).answer(args[2], new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+            printMetrics();
+            return;
+        }
 
-    }
+        //answer queries from a model kept in memory
+        if(args[0].equals("--serve")) {
+            //model memory lives as long as the server
+            TextGeneratorFunctor loader = new TextGeneratorFunctor(args[2]);
+            loader.setParallel(parallel);
+            loader.setPipelined(pipelined);
+            loader.setPruning(pruning);
+            loader.setOffHeap(offHeap);
+            BigramModel model = loader.getModel();
+            model.setCache(new SuccessorCache(cacheBudget));
+            TextGeneratorServer server = new TextGeneratorServer(model, Integer.parseInt(args[1]));
+            printPipelineStalls(loader);
+            printMetrics();
+            System.out.println("Listening on port " + server.getPort());
+            server.serve();
+            return;
+        }
 
-    /**
-     * If there is no 4th argument. Prints the k most probable words after "seed" word. If k is greater than the number
-     * of words after "seed" prints all words after "seed".
-     *
-     * @param numOutput - number of words to be printed
-     * @param func - TextGeneratorFunctor object with given parameters
-     */
-    private static void fourthArgNull(int numOutput, TextGeneratorFunctor func){
-        BinaryMaxHeap<KeyValuePair> heap = func.no4thParameter(); //Make heap of probable words after seed
-        if(numOutput > heap.size()) // If k is greater than heap size, k = heap size
-            numOutput = heap.size();
+        //input arguments into constructor
+        TextGeneratorFunctor func;
+        if(args.length == 3)
+             func = new TextGeneratorFunctor(args[0], args[1],args[2]);
+        else
+            func = new TextGeneratorFunctor(args[0], args[1], args[2], args[3]);
+        func.setParallel(parallel);
+        func.setPipelined(pipelined);
+        func.setPruning(pruning);
+        func.setApproximateCounters(approximateCounters);
+        func.setOrder(order);
+        func.setSamples(samples);
+        func.setOffHeap(offHeap);
+        if(args.length == 5)
+            func.setRandomSeed(Long.parseLong(args[4]));
 
-        for(int i = 0; i < numOutput; i++)
-            System.out.print(heap.extractMax().getWord() + " "); //Print out probable word in order of most probable
+        //write the output of the fourth argument, words are written as they are generated
+        func.writeOutput(new FileOutputStream(FileDescriptor.out));
+        printPipelineStalls(func);
+        printMetrics();
     }
 
     /**
-     * Reads file and prints out the most likely string starting from seed word
+     * Prints how often each stage of the pipeline waited, if the model was built by the pipeline.
      *
-     * @param func - TextGeneratorFunctor constructed with given parameters
+     * @param func - TextGeneratorFunctor that built the model
      */
-    private static void fourthArgOne(TextGeneratorFunctor func) {
-        //find words
-        var list = func.fourthArgumentOne();
-
-        //print words
-        for (String word : list)
-            System.out.print(word + " ");
+    private static void printPipelineStalls(TextGeneratorFunctor func) {
+        String stalls = func.getPipelineStalls();
+        if(stalls != null)
+            System.err.println(System.lineSeparator() + stalls);
     }
 
     /**
-     * Reads file and prints out a randomly selected slew of strings from weighted probabilities
-     *
-     * @param func - TextGeneratorFunctor constructed with given parameters
+     * Prints the phase times and counters of the run, if metrics are on.
      */
-    private static void fourthArgAll(TextGeneratorFunctor func) {
-        //find words
-        var list = func.fourthArgumentAll();
-
-        //print words
-        for (String word : list)
-            System.out.print(word + " ");
+    private static void printMetrics() {
+        if(Metrics.ENABLED)
+            System.err.println(System.lineSeparator() + Metrics.report());
     }
 }
@@ -2,9 +2,14 @@ package comprehensive;
 
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.*;
 import java.util.LinkedList;
 import java.util.HashMap;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Class that contains most of the logic of TextGenerator. Reads and lowercase the file.
@@ -15,10 +20,22 @@ import java.util.HashMap;
  */
 public class TextGeneratorFunctor {
     private File inputFile;
-    private Scanner fileReader;
+    private WordTokenizer fileReader; // words of the text file for nextWord, opened by its first call
     private String seed;
     private int k;
     private Boolean allOrOne; // null doesn't exist, true if "all" false if "one"
+    private boolean compiledModel; // true if inputFile is a model written by ModelFile
+    private PositionalIndex index; // not null if inputFile is an index written by PositionalIndex
+    private boolean parallel; // true if the model is built on every core by ParallelModelBuilder
+    private PipelinedModelBuilder pipeline; // not null if reading, tokenizing and counting run on separate threads
+    private boolean offHeap; // true if the model is copied into off-heap memory by OffHeapModel
+    private int approximateCounters; // counters of an approximate seed query, 0 to count every successor
+    private int samples; // independent "all" sequences generated in parallel, 0 for one sequence
+    private ModelPruning pruning; // rare pairs dropped while the model is built, null to keep every pair
+    private SplittableRandom random = new SplittableRandom(); // one generator for every weighted pick
+    private BigramModel model; // built or loaded once, never changed after
+    private int order = 2; // number of words each prediction looks at, including the predicted word
+    private NGramModel nGramModel; // model used instead of model when order is above 2
 
     private BinaryMaxHeap<KeyValuePair> wordHeap = new BinaryMaxHeap<>();
 
@@ -26,16 +43,23 @@ public class TextGeneratorFunctor {
      * Functor object constructor without the fourth parameter. The object created will read the file and only
      * look at the words that come after the initial "seed" word. allOrOne is null.
      *
-     * @param filePath - filepath of file
+     * @param filePath - filepath of file, a .gz file or "-" for standard input
      * @param seed - seed word. We calculate probable words after seed
      * @param k - k number of probable words want to be returned
      * @throws FileNotFoundException - if File path is not found
      */
     public TextGeneratorFunctor(String filePath, String seed, String k) throws FileNotFoundException{
+        inputFile = new File(filePath);
+        //the text is only opened by whatever reads it, which may be SeedSearch or ParallelModelBuilder
+        if(!filePath.equals(InputSource.STDIN) && !inputFile.isFile())
+            throw new FileNotFoundException(filePath + " (No such file)");
         try {
-            inputFile = new File(filePath);
-            fileReader = new Scanner(inputFile);
-        } catch (FileNotFoundException e) {
+            //stdin and .gz inputs are always text
+            compiledModel = InputSource.isPlainFile(filePath) && ModelFile.isModelFile(inputFile);
+            //an index answers seed queries from the positions it holds, only then is PositionalIndex loaded
+            if(!compiledModel && InputSource.isPlainFile(filePath) && ModelFile.startsWith(inputFile, PositionalIndex.MAGIC))
+                index = PositionalIndex.open(filePath);
+        } catch (IOException e) {
             throw new FileNotFoundException(e + "");
         }
         this.seed = seed;
@@ -57,219 +81,552 @@ public class TextGeneratorFunctor {
         this.allOrOne = allOrOne.equals("all");
     }
 
+    /**
+     * Functor object over a model that is already built, e.g. one shared by every query of a server.
+     * The model is only read, so many functors on many threads can use the same model.
+     *
+     * @param model - model of a text file
+     * @param seed - what word in the file we will initially look at
+     * @param k - k number of words that will be returned
+     * @param allOrOne - null for the k most probable words, true for "all", false for "one"
+     */
+    public TextGeneratorFunctor(BigramModel model, String seed, int k, Boolean allOrOne) {
+        this.model = model;
+        this.seed = seed;
+        this.k = k;
+        this.allOrOne = allOrOne;
+    }
+
+    /**
+     * Reads text file and counts every word that comes right after the seed word.
+     * A plain file is searched for the seed by SeedSearch, only the words after the seed are tokenized.
+     * An index reads only the positions of the seed, which may then be several words.
+     *
+     * @return - map of words after seed to their occurrences
+     */
+    @SuppressWarnings("try")
+    private HashMap<String, KeyValuePair> countSeedSuccessors(){
+        if(index != null) {
+            try (Metrics.Phase phase = Metrics.start("search index")) {
+                return index.successors(seed); //O(occurrences of seed)
+            }
+        }
+
+        //skip tokenizing everything that isn't the seed
+        if(InputSource.isPlainFile(inputFile.getPath())) {
+            try (Metrics.Phase phase = Metrics.start("search seed")) {
+                HashMap<String, KeyValuePair> found = SeedSearch.countSuccessors(inputFile.toPath(), seed);
+                if(found != null)
+                    return found;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        HashMap<String, KeyValuePair> map = new HashMap<>();
+        try (Metrics.Phase phase = Metrics.start("scan seed");
+             WordTokenizer tokenizer = openTokenizer()) {
+            String prev = tokenizer.nextWord();
+            String temp;
+
+            //loop through all words
+            while((temp = tokenizer.nextWord()) != null){ //O(N) loop
+                //checks file for seed word
+                if(prev.equals(seed)){
+                    //if found adds word after seed to hashmap
+                    if(map.containsKey(temp)) //O(1) average case
+                        map.get(temp).incrementOccurrence(); //O(1) average
+                    else
+                        map.put(temp, new KeyValuePair(temp, 1)); //O(1) average
+                }
+                prev = temp;
+            } //total O(N)
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        return map;
+    }
+
+    /**
+     * Reads text file and counts the words after the seed with a fixed number of Space-Saving counters,
+     * so memory stays the same however many distinct words follow the seed.
+     * O(N log m) where m is the number of counters
+     *
+     * @return - approximate counts of the words after seed
+     */
+    @SuppressWarnings("try")
+    private SpaceSavingTopK countSeedSuccessorsApproximately(){
+        SpaceSavingTopK counts = new SpaceSavingTopK(approximateCounters);
+        try (Metrics.Phase phase = Metrics.start("scan seed");
+             WordTokenizer tokenizer = openTokenizer()) {
+            String prev = tokenizer.nextWord();
+            String temp;
+
+            //loop through all words
+            while(prev != null && (temp = tokenizer.nextWord()) != null){ //O(N) loop
+                if(prev.equals(seed))
+                    counts.offer(temp); //O(log m)
+                prev = temp;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        return counts;
+    }
+
+    /**
+     * Functor object used to read a text file without a query, e.g. when compiling it into a model file.
+     *
+     * @param filePath - filepath of file, a .gz file or "-" for standard input
+     * @throws FileNotFoundException - if File path is not found
+     */
+    public TextGeneratorFunctor(String filePath) throws FileNotFoundException {
+        this(filePath, "", "0");
+    }
+
+    /**
+     * Reads the text file once and writes its words and their successors to a binary model file.
+     * Later functors constructed with the model file path skip tokenizing the text.
+     *
+     * @param modelPath - path of model file to write
+     * @throws IOException - if the model file cannot be written
+     */
+    public void compileModel(String modelPath) throws IOException {
+        ModelFile.write(buildModel(), modelPath);
+    }
+
     /**
      * Reads text file and adds all words proceeding seed word to BinaryMaxHeap in O(N) time
      *
      * @return BinaryMaxHeap containing all the words that commonly proceed after the seed word.
      */
+    @SuppressWarnings("try")
     public BinaryMaxHeap<KeyValuePair> no4thParameter(){
-        HashMap<String, KeyValuePair> map = new HashMap<>();
-        String temp = nextWord();
-
-        //loop through all words
-        while(fileReader.hasNext()){ //O(N) loop
-            //checks file for seed word
-            if(temp.equals(seed)){
-                //if found adds word after seed to hashmap
-                temp = nextWord();
-                if(map.containsKey(temp)) //O(1) average case
-                    map.get(temp).incrementOccurrence(); //O(1) average
-                else
-                    map.put(temp, new KeyValuePair(temp, 1)); //O(1) average
-            } else {
-                temp = nextWord();
-            }
-        } //total O(N)
+        //compiled model already has the successors of the seed counted
+        if(hasModel()) {
+            KeyValuePair[] row = buildModel().successors(seed);
+            wordHeap.buildHeap(row == null ? new KeyValuePair[0] : row);
+            return wordHeap;
+        }
+
+        HashMap<String, KeyValuePair> map = countSeedSuccessors(); //O(N)
 
         KeyValuePair[] arr = map.values().toArray(new KeyValuePair[0]); //O(N)
-        wordHeap.buildHeap(arr); //O(N)
+        try (Metrics.Phase phase = Metrics.start("build heap")) {
+            wordHeap.buildHeap(arr); //O(N)
+        }
 
         return wordHeap;
     }
 
     /**
-     * Reads text file and constructs a nested HashMap with the previousWord mapped to a
-     * hashMap of the all words that come after it.
+     * Returns the model of the file, reading it the first time it is needed.
      *
-     * @return - double hashmap containing all words and possible following words
+     * @return - model containing all words and possible following words
      */
-    private HashMap<String, HashMap<String, KeyValuePair>> readFileToHash() {
-        //Construct HashMaps
-        HashMap<String, HashMap<String, KeyValuePair>> map = new HashMap<>();
-        String curr = nextWord();
-        String next;
+    public BigramModel getModel() {
+        return buildModel();
+    }
 
-        //read files
-        while(fileReader.hasNext()){ //O(N)
-            //if map doesn't contain word, add it
-            if(!map.containsKey(curr))
-                map.put(curr, new HashMap<>());
+    /**
+     * Returns the model of the file, reading it the first time it is needed.
+     */
+    @SuppressWarnings("try")
+    private BigramModel buildModel() {
+        if(model == null) {
+            try (Metrics.Phase phase = Metrics.start(compiledModel ? "load model" : "build model")) {
+                model = readModel();
+            }
+            if(pruning != null) {
+                try (Metrics.Phase phase = Metrics.start("prune model")) {
+                    model = pruning.apply(model);
+                }
+            }
+            //heap copy becomes garbage once copied
+            if(offHeap) {
+                try (Metrics.Phase phase = Metrics.start("copy off-heap")) {
+                    model = OffHeapModel.copy(model);
+                }
+            }
+            Metrics.recordModel(model);
+        }
+        return model;
+    }
 
-            next = nextWord();
+    /**
+     * Returns the NGramModel of the file, reading it the first time it is needed.
+     *
+     * @throws IllegalStateException - if the input is a compiled model, which only holds word pairs, or an index
+     */
+    @SuppressWarnings("try")
+    private NGramModel buildNGramModel() {
+        if(nGramModel == null) {
+            if(compiledModel || index != null)
+                throw new IllegalStateException("Models of order " + order + " need a text file, not a compiled model or index");
+            try (Metrics.Phase phase = Metrics.start("build n-gram model");
+                 WordTokenizer tokenizer = openTokenizer()) {
+                nGramModel = NGramModel.build(tokenizer, order);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return nGramModel;
+    }
 
-            //Check if next is in associated hashMap
-            if(!map.get(curr).isEmpty() && map.get(curr).containsKey(next))
-                map.get(curr).get(next).incrementOccurrence();
-            else
-                map.get(curr).put(next, new KeyValuePair(next, 1));
+    /**
+     * Returns true if the seed's successors can be read from a model instead of scanning the file.
+     */
+    private boolean hasModel() {
+        return compiledModel || model != null;
+    }
 
-            //move to next word
-            curr = next;
+    /**
+     * Reads text file and gives every word an int id, counting every pair of (previous word, next word)
+     * in a BigramTable, then groups the pairs by previous word. If the input is a compiled model it is loaded instead,
+     * if it is an index its token stream is counted.
+     *
+     * @return - model containing all words and possible following words
+     */
+    private BigramModel readModel() {
+        //load compiled model instead of tokenizing
+        if(compiledModel) {
+            try {
+                return ModelFile.read(inputFile.getPath());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
         }
 
-        //double hash table
-        return map;
+        //count pairs of the index's token stream instead of tokenizing
+        if(index != null)
+            return index.buildModel();
+
+        //split the file into ranges counted on separate threads, only plain files can be split
+        if(parallel && InputSource.isPlainFile(inputFile.getPath())) {
+            try {
+                return ParallelModelBuilder.build(inputFile);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        //read, tokenize and count on separate threads
+        if(pipeline != null) {
+            try (InputStream input = InputSource.open(inputFile.getPath())) {
+                return pipeline.build(input, pruning);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        Vocabulary vocabulary = new Vocabulary();
+        BigramTable table = new BigramTable();
+        if(pruning != null)
+            pruning.prepare(table);
+
+        //read files, words are looked up from the tokenizer's bytes without making Strings
+        try (WordTokenizer tokenizer = openTokenizer()) {
+            int curr = tokenizer.nextId(vocabulary);
+            if(curr >= 0) {
+                int next;
+                while((next = tokenizer.nextId(vocabulary)) >= 0){ //O(N)
+                    table.increment(curr, next); //O(1) average
+
+                    //move to next word
+                    curr = next;
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        //pairs grouped by previous word
+        if(pruning != null)
+            pruning.beforeFreeze(table);
+        return new BigramModel(vocabulary, table);
     }
 
     /**
-     * Turns double HashTable and utilizes a binary max heap to find the most likely
-     * k words from previous seed word
+     * Returns the k most probable words after the seed, most probable first. A compiled model answers
+     * with a prefix of the seed's sorted row, a text file is read for the words after the seed and
+     * only the k largest are kept while looking through them.
+     *
+     * @return - up to k words paired with their occurrences
+     */
+    @SuppressWarnings("try")
+    public List<KeyValuePair> kMostProbableWords(){
+        if(hasModel())
+            return buildModel().topK(seed, k); //O(k)
+
+        //constant memory, counts are upper bounds, an index already counts exactly without the text
+        if(approximateCounters > 0 && index == null)
+            return countSeedSuccessorsApproximately().topK(k); //O(N log m + m log k)
+
+        HashMap<String, KeyValuePair> successors = countSeedSuccessors(); //O(N)
+        try (Metrics.Phase phase = Metrics.start("select top k")) {
+            TopKSelector<KeyValuePair> selector = TopKSelector.naturalOrder(k);
+            selector.offerAll(successors.values()); //O(N lg k)
+            return selector.extractSorted(); //O(k lg k)
+        }
+    }
+
+    /**
+     * Follows the most probable word of each word in the model. Rows of the model are sorted
+     * so the most likely word is found in O(1) without building any heap, and once a word repeats
+     * the rest of the output is read from the cycle found by GreedyPath.
      *
      * @return a linked list of the most likely string of words originating from a seed
      */
     public LinkedList<String> fourthArgumentOne() {
-        //get double hashmap
-        var hashMap = readFileToHash();
-
-        //Keep track of MostProbableWord
-        HashMap<String, BinaryMaxHeap<KeyValuePair>> heapMap = new HashMap<>();
+        //predict from more than one previous word
+        if(order > 2)
+            return buildNGramModel().generate(seed, k, false, random);
 
-        //Initialize previousOutput to seed value
-        String previousOut = seed;
+        //words before the cycle and one period of it
+        GreedyPath path = new GreedyPath(buildModel(), seed);
 
         //Output
         LinkedList<String> out = new LinkedList<>();
-
-        //Add k most probable words after previous Output to out List
-        for (int i = 0; i < k; i++) {
-            //If we don't already have a BinaryHeap for previousOut word
-            if(!heapMap.containsKey(previousOut)) { //O(1)
-                //If there are no words after the previously output word.
-                if(hashMap.get(previousOut) == null || hashMap.get(previousOut).isEmpty()) {
-                    out.addLast(previousOut); //O(1)
-                    previousOut = seed;
-                //Create new BinaryHeap from HashMap and peek max
-                } else {
-                    //words after previous output word
-                    KeyValuePair[] arr = hashMap.get(previousOut).values().toArray(new KeyValuePair[0]); //O(N)
-                    BinaryMaxHeap<KeyValuePair> probableWords = new BinaryMaxHeap<>(); //O(1)
-                    probableWords.buildHeap(arr); // O(N)
-
-                    //Put previous output word in a hashMap to heap of probable words
-                    heapMap.put(previousOut, probableWords);
-                    out.addLast(previousOut); //O(1)
-                    previousOut = heapMap.get(previousOut).peek().getWord(); //O(1)
-                }
-            } else {
-                //if word had already been added, add word or seed to output
-                if (hashMap.get(previousOut) == null || hashMap.get(previousOut).isEmpty()) {
-                    out.addLast(previousOut); //O(1)
-                    previousOut = seed;
-                } else {
-                    out.addLast(previousOut); //O(1)
-                    previousOut = heapMap.get(previousOut).peek().getWord(); //O(1)
-                }
-            }
-        } //total O(k * N)
+        for (int i = 0; i < k; i++)
+            out.addLast(path.wordAt(i)); //O(1)
 
         return out;
     }
 
     /**
      * If 4th argument is "all" it returns a weighted probable word of the previously output word.
+     * Each pick is O(1) using the alias table of the previous word, built the first time it is needed.
      *
      * @return - list of k probable words after previous output word based on probably
      */
     public LinkedList<String> fourthArgumentAll(){
-        //Get File data
-        var hashMap = readFileToHash();
-        String curr = seed;
+        //Loop through and get k probable words to output
         LinkedList<String> out = new LinkedList<>();
+        words(true).forEachRemaining(out::addLast); //total O(k + size of rows visited)
+        return out;
+    }
 
-        //Keep track if already got KeyValuePair array of a word
-        HashMap<String, KeyValuePair[]> arrayMap = new HashMap<>();
+    /**
+     * Pulls the words of the "one" or "all" mode one at a time as ids of the words of
+     * outputVocabulary(), so the output is never held in memory.
+     *
+     * @param weighted - true for the "all" mode, false for the "one" mode
+     * @return - ids of k words, -1 for a seed not in the model
+     */
+    public PrimitiveIterator.OfInt wordIds(boolean weighted){
+        //predict from more than one previous word
+        if(order > 2)
+            return buildNGramModel().iterator(seed, k, weighted, random);
+        return new WordIterator(buildModel(), seed, k, weighted, random);
+    }
 
-        //Loop through and get k probable words to output
-        for(int i = 0; i < k; i++) {
-            //already have a KeyValuePair array
-            if(arrayMap.containsKey(curr)){
-                //If it is null set back to seed
-                if(hashMap.get(curr) == null || hashMap.get(curr).isEmpty()) {
-                    out.addLast(curr);
-                    curr = seed;
-                } else {
-                    //Take random word based on probability from array
-                    out.addLast(curr);
-                    curr = nextRandomWord(arrayMap.get(curr));
-                }
-            } else {
-                if(hashMap.get(curr) == null || hashMap.get(curr).isEmpty()) {
-                    out.addLast(curr);
-                    curr = seed;
-                } else {
-                    //add array to hashMap to not calculate again.
-                    var temp = hashMap.get(curr).values().toArray(new KeyValuePair[0]);
-                    arrayMap.put(curr, temp);
-                    out.addLast(curr);
-                    curr = nextRandomWord(temp);
-                }
+    /**
+     * Pulls the words of the "one" or "all" mode one at a time.
+     *
+     * @param weighted - true for the "all" mode, false for the "one" mode
+     * @return - k words
+     */
+    public Iterator<String> words(boolean weighted){
+        PrimitiveIterator.OfInt ids = wordIds(weighted);
+        Vocabulary vocabulary = outputVocabulary();
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return ids.hasNext();
             }
-        }
 
-        return out;
+            @Override
+            public String next() {
+                int id = ids.nextInt();
+                return id < 0 ? seed : vocabulary.wordOf(id);
+            }
+        };
     }
 
-
     /**
-     * Returns the next word that comes after previous output randomly based on probabilities.
+     * Writes the output of the mode given by the fourth argument as UTF-8, each word followed by a space.
+     * Words are pulled and written one at a time through a large buffer, so any k runs in constant
+     * memory, and the "one" mode writes whole periods of its cycle at a time.
      *
-     * @param arr - list of words and probabilities that come after previous output
-     * @return - KeyValuePair of next word to be output
-     */
-    private String nextRandomWord(KeyValuePair[] arr){
-        Random rnd = new Random();
-        int totalOccurences = 0;
-        int lowerBound = 0;
-        int upperBound;
-        //Total number of occurrences
-        for(int i = 0; i < arr.length; i++)
-            totalOccurences += arr[i].getOccurrence();
-
-        int value = rnd.nextInt(totalOccurences);
-
-        //Put values into an array
-        for(int i = 0; i < arr.length; i++){
-            upperBound = lowerBound + arr[i].getOccurrence();
-            //If the value is within interval return value
-            if(lowerBound <= value && value < upperBound){
-                return arr[i].getWord();
+     * @param out - where the output is written, flushed but not closed
+     * @throws IOException - if out cannot be written
+     */
+    @SuppressWarnings("try")
+    public void writeOutput(OutputStream out) throws IOException {
+        //at most k probable words after seed, most probable first
+        if(allOrOne == null) {
+            List<KeyValuePair> words = kMostProbableWords();
+            try (Metrics.Phase phase = Metrics.start("write output")) {
+                WordWriter writer = new WordWriter(out);
+                for(KeyValuePair pair : words)
+                    writer.write(pair.getWord());
+                writer.flush();
             }
-            lowerBound = upperBound;
+            return;
+        }
+
+        //model is built before the phase starts, words are generated as they are written
+        WordWriter writer = new WordWriter(out, outputVocabulary());
+        if(allOrOne && samples > 0) {
+            writeSamples(writer);
+            return;
+        }
+        try (Metrics.Phase phase = Metrics.start("generate and write")) {
+            if(!allOrOne && order == 2)
+                new GreedyPath(buildModel(), seed).write(writer, k); //O(prefix + period) besides writing
+            else
+                writer.writeAll(wordIds(allOrOne), seed); //O(k)
+            writer.flush();
+        }
+    }
+
+    /**
+     * Writes independent "all" sequences generated in parallel by ParallelSampler, one per line.
+     * The master seed is drawn from the functor's random generator, so a fifth argument repeats every sequence.
+     *
+     * @throws IllegalStateException - if order is above 2, only word pair models are sampled in parallel
+     */
+    @SuppressWarnings("try")
+    private void writeSamples(WordWriter writer) throws IOException {
+        if(order > 2)
+            throw new IllegalStateException("Parallel samples need a model of order 2");
+
+        ParallelSampler sampler = new ParallelSampler(buildModel());
+        //blocks of sequences are written as they are finished
+        try (Metrics.Phase phase = Metrics.start("sample sequences")) {
+            sampler.write(seed, samples, k, random.nextLong(), ForkJoinPool.commonPool(), writer); //O(samples * k / threads)
         }
-        //can't find
-        return null;
     }
 
     /**
-     * Returns the next word in file without punctuation and lowercase
-     * @return - next word in file
+     * Returns the vocabulary the ids of wordIds() refer to.
+     */
+    private Vocabulary outputVocabulary(){
+        return order > 2 ? buildNGramModel().vocabulary() : buildModel().vocabulary();
+    }
+
+    /**
+     * Returns the next word in file without punctuation and lowercase.
+     * Only the first piece of a word split at punctuation is kept, e.g. "things.what?" is "things".
+     * @return - next word in file, or null if there are no more words
      */
     public String nextWord(){
-        String nextWord;
+        try {
+            if(fileReader == null)
+                fileReader = openTokenizer();
+            String word = fileReader.nextWord();
+            //every word has been read
+            if(word == null)
+                fileReader.close();
+            return word;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 
-        //Do while nextWord isn't an empty String
-        do {
-            //split words at anything not letter or number
-            var splitWords = fileReader.next().toLowerCase().split("\\W");
+    /**
+     * Opens the text file for one pass over its words. The caller closes the tokenizer when done.
+     */
+    private WordTokenizer openTokenizer() throws IOException {
+        return new WordTokenizer(InputSource.open(inputFile.getPath()));
+    }
 
-            //Replace any punctuation in first word in array.
-            if(splitWords.length >= 1)
-                nextWord = splitWords[0].replaceAll("\\W", "");
-            else
-                nextWord = "";
-        } while (nextWord.isEmpty());
+    /**
+     * Sets whether the model of a text file is built in parallel over ranges of the file.
+     * Does not change the output, only how fast the model is built.
+     *
+     * @param parallel - true to build on every core
+     */
+    public void setParallel(boolean parallel){
+        this.parallel = parallel;
+    }
+
+    /**
+     * Sets whether the model of a text file is built by a pipeline of reader, tokenizer and counter threads.
+     * Does not change the output, only how fast the model is built. --parallel is used instead for plain files.
+     *
+     * @param pipelined - true to read, tokenize and count on separate threads
+     */
+    public void setPipelined(boolean pipelined){
+        pipeline = pipelined ? new PipelinedModelBuilder() : null;
+    }
 
-        return nextWord;
+    /**
+     * Makes the query without a fourth argument count the words after the seed approximately with the
+     * Space-Saving algorithm, keeping at most m words. Any word following the seed more than 1 / m of the
+     * time is always found. Has no effect when the input is a compiled model or an index.
+     *
+     * @param m - number of counters, or 0 to count every word exactly
+     */
+    public void setApproximateCounters(int m){
+        if(m < 0)
+            throw new IllegalArgumentException("number of counters must not be negative");
+        approximateCounters = m;
+    }
+
+    /**
+     * Makes the "all" mode write n independent sequences of k words, one per line, generated in parallel
+     * from the shared model. Has no effect on the other modes.
+     *
+     * @param n - number of sequences, or 0 for the usual single sequence
+     * @throws IllegalArgumentException - if n is negative
+     */
+    public void setSamples(int n){
+        if(n < 0)
+            throw new IllegalArgumentException("number of samples must not be negative");
+        samples = n;
+    }
+
+    /**
+     * Drops rare word pairs while the model is built, see ModelPruning. The memory budget applies to the
+     * pair table of a sequential or pipelined build, parallel builds and compiled models only get
+     * minCount and maxSuccessors.
+     *
+     * @param pruning - pruning options, or null to keep every pair
+     */
+    public void setPruning(ModelPruning pruning){
+        this.pruning = pruning;
+    }
+
+    /**
+     * Keeps the model in off-heap memory instead of on the Java heap. The memory is freed once the model
+     * is no longer reachable. Only this mode needs --enable-preview at run time.
+     *
+     * @param offHeap - true to copy the model off the heap
+     */
+    public void setOffHeap(boolean offHeap){
+        this.offHeap = offHeap;
+    }
+
+    /**
+     * Returns how often each stage of the pipeline waited for another, or null if no model was built by the pipeline.
+     */
+    public String getPipelineStalls(){
+        return pipeline == null ? null : pipeline.stallReport();
+    }
+
+    /**
+     * Sets how many words each prediction of the "one" and "all" modes looks at, including the predicted word.
+     * 2 predicts from the previous word only, up to 5 predicts from the previous four words.
+     *
+     * @param order - N of the N-gram model, from 2 to 5
+     * @throws IllegalArgumentException - if order is not between 2 and 5
+     */
+    public void setOrder(int order){
+        if(order < 2 || order > 5)
+            throw new IllegalArgumentException("order must be between 2 and 5");
+        this.order = order;
+    }
+
+    /**
+     * Seeds the random generator used by the "all" mode, so the same seed gives the same words.
+     *
+     * @param randomSeed - seed of the random generator
+     */
+    public void setRandomSeed(long randomSeed){
+        random = new SplittableRandom(randomSeed);
     }
 
     /**
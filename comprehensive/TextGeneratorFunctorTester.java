@@ -2,9 +2,36 @@ package comprehensive;
 
 import org.junit.jupiter.api.Test;
 
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.lang.foreign.Arena;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
@@ -159,4 +186,539 @@ public class TextGeneratorFunctorTester {
         TextGeneratorFunctor func = new TextGeneratorFunctor("C:\\Users\\u1433029\\IdeaProjects\\CS 2420\\src\\comprehensive\\MobyDick.txt", "swallowed", "10");
         System.out.println(func.fourthArgumentAll().toString());
     }
+
+    @Test
+    void testCompiledModelOne() throws IOException {
+        File model = File.createTempFile("trickyFormatting", ".tgm");
+        new TextGeneratorFunctor("C:\\Users\\u1433029\\IdeaProjects\\CS 2420\\src\\comprehensive\\trickyFormatting.txt").compileModel(model.getPath());
+        TextGeneratorFunctor func = new TextGeneratorFunctor(model.getPath(), "has", "10");
+        assertEquals("[has, a, few, them, punctuation, or, fomatting, things, yup, has]", func.fourthArgumentOne().toString());
+        model.delete();
+    }
+
+    @Test
+    void testCompiledModel3Param() throws IOException {
+        File model = File.createTempFile("abc", ".tgm");
+        new TextGeneratorFunctor("C:\\Users\\u1433029\\IdeaProjects\\CS 2420\\src\\comprehensive\\abc.txt").compileModel(model.getPath());
+        BinaryMaxHeap<KeyValuePair> heap = new TextGeneratorFunctor(model.getPath(), "a", "5").no4thParameter();
+        assertEquals("b", heap.extractMax().getWord());
+        assertEquals("c", heap.extractMax().getWord());
+        assertEquals(23, heap.size());
+        model.delete();
+    }
+
+    @Test
+    void testNextWordTrickyFormatting() throws FileNotFoundException {
+        TextGeneratorFunctor func = new TextGeneratorFunctor("C:\\Users\\u1433029\\IdeaProjects\\CS 2420\\src\\comprehensive\\trickyFormatting.txt");
+        StringBuilder words = new StringBuilder();
+        for (String word = func.nextWord(); word != null; word = func.nextWord())
+            words.append(word).append(" ");
+        assertEquals("this file iirc has a few them punctuation or fomatting things yup ", words.toString());
+    }
+
+    @Test
+    void testParallelOneTrickyFormatting() throws FileNotFoundException {
+        TextGeneratorFunctor func = new TextGeneratorFunctor("C:\\Users\\u1433029\\IdeaProjects\\CS 2420\\src\\comprehensive\\trickyFormatting.txt", "has", "10");
+        func.setParallel(true);
+        assertEquals("[has, a, few, them, punctuation, or, fomatting, things, yup, has]", func.fourthArgumentOne().toString());
+    }
+
+    @Test
+    void testSeededAllRepeats() throws FileNotFoundException {
+        TextGeneratorFunctor first = new TextGeneratorFunctor("C:\\Users\\u1433029\\IdeaProjects\\CS 2420\\src\\comprehensive\\MobyDick.txt", "the", "50", "all");
+        TextGeneratorFunctor second = new TextGeneratorFunctor("C:\\Users\\u1433029\\IdeaProjects\\CS 2420\\src\\comprehensive\\MobyDick.txt", "the", "50", "all");
+        first.setRandomSeed(2420);
+        second.setRandomSeed(2420);
+        assertEquals(first.fourthArgumentAll().toString(), second.fourthArgumentAll().toString());
+    }
+
+    @Test
+    void testKMostProbableABC() throws FileNotFoundException {
+        TextGeneratorFunctor func = new TextGeneratorFunctor("C:\\Users\\u1433029\\IdeaProjects\\CS 2420\\src\\comprehensive\\abc.txt", "a", "5");
+        var words = func.kMostProbableWords();
+        assertEquals(5, words.size());
+        assertEquals("b", words.get(0).getWord());
+        assertEquals("f", words.get(4).getWord());
+    }
+
+    @Test
+    void testBatchQueryTrickyFormatting() throws IOException {
+        BatchQuery batch = new BatchQuery(List.of(Query.parse("few 3"), Query.parse("a 2"), Query.parse("missing 2")));
+        StringWriter out = new StringWriter();
+        batch.answer("C:\\Users\\u1433029\\IdeaProjects\\CS 2420\\src\\comprehensive\\trickyFormatting.txt", out);
+        assertEquals("them" + System.lineSeparator() + "few" + System.lineSeparator() + System.lineSeparator(), out.toString());
+    }
+
+    @Test
+    void testNGramOrder2MatchesOne() throws IOException {
+        TextGeneratorFunctor func = new TextGeneratorFunctor("C:\\Users\\u1433029\\IdeaProjects\\CS 2420\\src\\comprehensive\\MobyDick.txt", "whale", "40");
+        WordTokenizer tokenizer = new WordTokenizer(new FileInputStream("C:\\Users\\u1433029\\IdeaProjects\\CS 2420\\src\\comprehensive\\MobyDick.txt"));
+        NGramModel bigram = NGramModel.build(tokenizer, 2);
+        assertEquals(func.fourthArgumentOne().toString(), bigram.generate("whale", 40, false, new SplittableRandom()).toString());
+    }
+
+    @Test
+    void testOrder3TrickyFormatting() throws FileNotFoundException {
+        TextGeneratorFunctor func = new TextGeneratorFunctor("C:\\Users\\u1433029\\IdeaProjects\\CS 2420\\src\\comprehensive\\trickyFormatting.txt", "has", "10");
+        func.setOrder(3);
+        assertEquals("[has, a, few, them, punctuation, or, fomatting, things, yup, has]", func.fourthArgumentOne().toString());
+    }
+
+    @Test
+    void testGreedyPathCycle() throws FileNotFoundException {
+        TextGeneratorFunctor func = new TextGeneratorFunctor("C:\\Users\\u1433029\\IdeaProjects\\CS 2420\\src\\comprehensive\\trickyFormatting.txt");
+        GreedyPath path = new GreedyPath(func.getModel(), "file");
+        assertEquals(0, path.getPrefixLength());
+        assertEquals(11, path.getPeriod());
+        assertEquals("iirc", path.wordAt(110_000_000_001L));
+    }
+
+    @Test
+    void testWriteOutputMatchesList() throws IOException {
+        TextGeneratorFunctor listed = new TextGeneratorFunctor("C:\\Users\\u1433029\\IdeaProjects\\CS 2420\\src\\comprehensive\\MobyDick.txt", "the", "500", "all");
+        TextGeneratorFunctor streamed = new TextGeneratorFunctor("C:\\Users\\u1433029\\IdeaProjects\\CS 2420\\src\\comprehensive\\MobyDick.txt", "the", "500", "all");
+        listed.setRandomSeed(7);
+        streamed.setRandomSeed(7);
+
+        StringBuilder expected = new StringBuilder();
+        for (String word : listed.fourthArgumentAll())
+            expected.append(word).append(' ');
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        streamed.writeOutput(out);
+        assertEquals(expected.toString(), out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testGzipInputMatchesText() throws IOException {
+        String path = "C:\\Users\\u1433029\\IdeaProjects\\CS 2420\\src\\comprehensive\\trickyFormatting.txt";
+        File compressed = File.createTempFile("trickyFormatting", ".txt.gz");
+        compressed.deleteOnExit();
+        try (InputStream in = new FileInputStream(path); OutputStream out = new GZIPOutputStream(new FileOutputStream(compressed))) {
+            in.transferTo(out);
+        }
+
+        TextGeneratorFunctor text = new TextGeneratorFunctor(path, "file", "20", "one");
+        TextGeneratorFunctor gzip = new TextGeneratorFunctor(compressed.getPath(), "file", "20", "one");
+        assertEquals(text.fourthArgumentOne().toString(), gzip.fourthArgumentOne().toString());
+    }
+
+    @Test
+    void testVocabularyBytesMatchStrings() {
+        Vocabulary vocabulary = new Vocabulary();
+        byte[] buffer = "xxwhale".getBytes(StandardCharsets.UTF_8);
+        int whale = vocabulary.idOf(buffer, 2, 5, Vocabulary.hash(buffer, 2, 5));
+        assertEquals(whale, vocabulary.idOf("whale"));
+        assertEquals(whale, vocabulary.find("whale"));
+        assertEquals(-1, vocabulary.find("whal"));
+        assertEquals("whale".hashCode(), Vocabulary.hash(buffer, 2, 5));
+
+        byte[] copy = new byte[vocabulary.wordLength(whale)];
+        vocabulary.copyWord(whale, copy, 0);
+        assertEquals("whale", new String(copy, StandardCharsets.UTF_8));
+        assertEquals("whale", vocabulary.wordOf(whale));
+    }
+
+    @Test
+    void testSpaceSavingBounds() {
+        SpaceSavingTopK counts = new SpaceSavingTopK(3);
+        for (String word : "a b a c a d b a e b".split(" "))
+            counts.offer(word);
+        assertEquals(10, counts.total());
+        assertEquals("a", counts.topK(1).get(0).getWord());
+        assertEquals(4, counts.lowerBound("a"));
+        assertTrue(counts.minCount() <= counts.total() / 3);
+        assertTrue(counts.upperBound("c") >= 1);
+        assertEquals("a", counts.guaranteedTopK(1).get(0).getWord());
+    }
+
+    @Test
+    void testApproximateMatchesExactWithEnoughCounters() throws FileNotFoundException {
+        TextGeneratorFunctor exact = new TextGeneratorFunctor("C:\\Users\\u1433029\\IdeaProjects\\CS 2420\\src\\comprehensive\\MobyDick.txt", "whale", "5");
+        TextGeneratorFunctor approximate = new TextGeneratorFunctor("C:\\Users\\u1433029\\IdeaProjects\\CS 2420\\src\\comprehensive\\MobyDick.txt", "whale", "5");
+        approximate.setApproximateCounters(1 << 16);
+        assertEquals(exact.kMostProbableWords().toString(), approximate.kMostProbableWords().toString());
+    }
+
+    @Test
+    void testIndexedHeapUpdate() {
+        class Key extends IndexedBinaryMaxHeap.Entry {
+            int key;
+
+            Key(int key) {
+                this.key = key;
+            }
+        }
+        Key[] keys = {new Key(5), new Key(1), new Key(3)};
+        IndexedBinaryMaxHeap<Key> heap = new IndexedBinaryMaxHeap<>((a, b) -> Integer.compare(a.key, b.key));
+        heap.add(keys[0]);
+        heap.add(keys[1]);
+        heap.add(keys[2]);
+        assertThrows(IllegalArgumentException.class, () -> heap.add(keys[1]));
+        keys[1].key = 9;
+        heap.update(keys[1]);
+        assertEquals(keys[1], heap.extractMax());
+        assertFalse(heap.contains(keys[1]));
+        keys[0].key = 0;
+        heap.update(keys[0]);
+        assertEquals(keys[2], heap.extractMax());
+        assertEquals(keys[0], heap.extractMax());
+        assertTrue(heap.isEmpty());
+    }
+
+    @Test
+    void testPruningKeepsMostProbable() throws FileNotFoundException {
+        TextGeneratorFunctor full = new TextGeneratorFunctor("C:\\Users\\u1433029\\IdeaProjects\\CS 2420\\src\\comprehensive\\MobyDick.txt", "the", "3");
+        TextGeneratorFunctor pruned = new TextGeneratorFunctor("C:\\Users\\u1433029\\IdeaProjects\\CS 2420\\src\\comprehensive\\MobyDick.txt", "the", "3");
+        pruned.setPruning(new ModelPruning(2, 3, Long.MAX_VALUE));
+        BigramModel fullModel = full.getModel();
+        BigramModel prunedModel = pruned.getModel();
+
+        assertTrue(prunedModel.bigramCount() < fullModel.bigramCount());
+        assertEquals(fullModel.topK("the", 3).toString(), prunedModel.topK("the", 3).toString());
+        for (int id = 0; id < prunedModel.size(); id++)
+            assertTrue(prunedModel.successorCount(id) <= 3);
+    }
+
+    @Test
+    void testMemoryBudgetSweeps() {
+        BigramTable table = new BigramTable();
+        table.setMemoryBudget(table.memoryBytes() * 2);
+        for (int i = 0; i < 100_000; i++)
+            table.increment(i % 5 == 0 ? 0 : i, 1);
+        assertTrue(table.memoryBytes() <= table.capacity() * 12L);
+        assertTrue(table.getSweeps() > 0);
+        //the frequent pair survives every sweep with its exact count
+        assertEquals(20_000, table.get(0, 1));
+    }
+
+    @Test
+    void testMetricsOffRecordNothing() throws FileNotFoundException {
+        TextGeneratorFunctor func = new TextGeneratorFunctor("C:\\Users\\u1433029\\IdeaProjects\\CS 2420\\src\\comprehensive\\MobyDick.txt", "the", "5", "one");
+        func.fourthArgumentOne();
+        //tests run without -Dcomprehensive.metrics
+        assertFalse(Metrics.ENABLED);
+        assertEquals("{\"enabled\":false}", Metrics.toJson());
+    }
+
+    @Test
+    void testSuccessorCacheStaysWithinBudget() throws FileNotFoundException {
+        TextGeneratorFunctor func = new TextGeneratorFunctor("C:\\Users\\u1433029\\IdeaProjects\\CS 2420\\src\\comprehensive\\MobyDick.txt");
+        BigramModel model = func.getModel();
+        String expected = model.topK("whale", 10).toString();
+        SuccessorCache cache = new SuccessorCache(1 << 20);
+        model.setCache(cache);
+
+        for (int id = 0; id < model.size(); id++)
+            if (model.successorCount(id) > 0)
+                model.aliasTable(id);
+        assertTrue(cache.evictions() > 0);
+        assertTrue(cache.memoryBytes() <= cache.budget());
+
+        //hot word is built once, then found
+        long misses = cache.misses();
+        assertEquals(expected, model.topK("whale", 10).toString());
+        assertEquals(expected, model.topK("whale", 10).toString());
+        assertEquals(misses + 1, cache.misses());
+        assertTrue(cache.hits() > 0);
+    }
+
+    @Test
+    void testParallelSamplesSameOnAnyPool() throws FileNotFoundException {
+        TextGeneratorFunctor func = new TextGeneratorFunctor("C:\\Users\\u1433029\\IdeaProjects\\CS 2420\\src\\comprehensive\\MobyDick.txt");
+        BigramModel model = func.getModel();
+        ParallelSampler sampler = new ParallelSampler(model);
+
+        int[][] one = sampler.sample("the", 500, 20, 2420, new ForkJoinPool(1));
+        int[][] four = sampler.sample("the", 500, 20, 2420, new ForkJoinPool(4));
+        for (int i = 0; i < one.length; i++)
+            assertEquals(sampler.wordsOf(one[i], "the"), sampler.wordsOf(four[i], "the"));
+
+        //every word follows the word before it
+        for (int[] sequence : one) {
+            assertEquals(model.find("the"), sequence[0]);
+            for (int j = 1; j < sequence.length; j++) {
+                int prev = sequence[j - 1];
+                boolean follows = model.successorCount(prev) == 0 && sequence[j] == sequence[0];
+                for (int i = 0; i < model.successorCount(prev); i++)
+                    follows |= model.successor(prev, i) == sequence[j];
+                assertTrue(follows);
+            }
+        }
+    }
+
+    @Test
+    void testSeedSearchMatchesTokenizer() throws IOException {
+        for (String file : new String[]{"MobyDick.txt", "trickyFormatting.txt"}) {
+            String path = "C:\\Users\\u1433029\\IdeaProjects\\CS 2420\\src\\comprehensive\\" + file;
+            for (String seed : new String[]{"the", "whale", "a", "hello", "pequod", "The"}) {
+                //every word tokenized and compared with the seed
+                HashMap<String, Integer> expected = new HashMap<>();
+                WordTokenizer tokenizer = new WordTokenizer(new FileInputStream(path));
+                String prev = tokenizer.nextWord();
+                String next;
+                while (prev != null && (next = tokenizer.nextWord()) != null) {
+                    if (prev.equals(seed))
+                        expected.merge(next, 1, Integer::sum);
+                    prev = next;
+                }
+
+                HashMap<String, Integer> found = new HashMap<>();
+                SeedSearch.countSuccessors(Path.of(path), seed).forEach((word, pair) -> found.put(word, pair.getOccurrence()));
+                assertEquals(expected, found);
+            }
+        }
+    }
+
+    @Test
+    void testPositionalIndexMatchesModel() throws IOException {
+        String path = "C:\\Users\\u1433029\\IdeaProjects\\CS 2420\\src\\comprehensive\\MobyDick.txt";
+        File index = File.createTempFile("MobyDick", ".tgx");
+        PositionalIndex.build(path, index.getPath());
+        BigramModel model = new TextGeneratorFunctor(path).getModel();
+
+        try (Arena arena = Arena.ofConfined()) {
+            PositionalIndex positions = PositionalIndex.open(index.getPath(), arena);
+            for (String seed : new String[]{"the", "whale", "pequod", "hello"}) {
+                HashMap<String, Integer> expected = new HashMap<>();
+                KeyValuePair[] row = model.successors(seed);
+                if (row != null)
+                    for (KeyValuePair pair : row)
+                        expected.put(pair.getWord(), pair.getOccurrence());
+
+                HashMap<String, Integer> found = new HashMap<>();
+                positions.successors(seed).forEach((word, pair) -> found.put(word, pair.getOccurrence()));
+                assertEquals(expected, found);
+            }
+
+            //a phrase is only counted where all of its words occur in order
+            int mobyDick = 0;
+            for (KeyValuePair pair : positions.successors("moby").values())
+                if (pair.getWord().equals("dick"))
+                    mobyDick = pair.getOccurrence();
+            int phrase = 0;
+            for (KeyValuePair pair : positions.successors("moby dick").values())
+                phrase += pair.getOccurrence();
+            assertTrue(phrase > 0 && phrase <= mobyDick);
+            assertEquals(0, positions.successors("whale moby the").size());
+        }
+
+        //the functor answers from the index
+        assertEquals(new TextGeneratorFunctor(path, "whale", "5").kMostProbableWords().toString(),
+                new TextGeneratorFunctor(index.getPath(), "whale", "5").kMostProbableWords().toString());
+        index.delete();
+    }
+
+    @Test
+    void testOffHeapSamplesMatchHeap() throws IOException {
+        String path = "C:\\Users\\u1433029\\IdeaProjects\\CS 2420\\src\\comprehensive\\MobyDick.txt";
+        String[] outputs = new String[2];
+        for (int i = 0; i < 2; i++) {
+            //samples are read by ForkJoin workers, not the thread that copied the model
+            TextGeneratorFunctor func = new TextGeneratorFunctor(path, "the", "8", "all");
+            func.setOffHeap(i == 1);
+            func.setSamples(300);
+            func.setRandomSeed(5);
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            func.writeOutput(out);
+            outputs[i] = out.toString(StandardCharsets.UTF_8);
+        }
+        assertEquals(300, outputs[1].split("\n").length);
+        assertEquals(outputs[0], outputs[1]);
+    }
+
+    @Test
+    void testParallelSamplesWrittenInBlocks() throws IOException {
+        BigramModel model = new TextGeneratorFunctor("C:\\Users\\u1433029\\IdeaProjects\\CS 2420\\src\\comprehensive\\MobyDick.txt").getModel();
+        ParallelSampler sampler = new ParallelSampler(model);
+        //three blocks of two sequences, then one sequence too long to hold
+        int[][] cases = {{5, ParallelSampler.MAX_BUFFERED_IDS / 2}, {1, ParallelSampler.MAX_BUFFERED_IDS + 1}};
+        for (int[] sizes : cases) {
+            ByteArrayOutputStream expected = new ByteArrayOutputStream();
+            WordWriter writer = new WordWriter(expected, model.vocabulary());
+            for (int[] sequence : sampler.sample("the", sizes[0], sizes[1], 42, new ForkJoinPool(2))) {
+                writer.writeAll(Arrays.stream(sequence).iterator(), "the");
+                writer.write(new byte[]{'\n'}, 0, 1);
+            }
+            writer.flush();
+
+            ByteArrayOutputStream written = new ByteArrayOutputStream();
+            sampler.write("the", sizes[0], sizes[1], 42, new ForkJoinPool(2), new WordWriter(written, model.vocabulary()));
+            assertTrue(Arrays.equals(expected.toByteArray(), written.toByteArray()));
+        }
+    }
+
+    @Test
+    void testMetricsOnRecordPhasesAndCounters() throws IOException, InterruptedException {
+        //ENABLED is read once when Metrics loads, so metrics are turned on in a new JVM
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        Process process = new ProcessBuilder(java, "--enable-preview", "-Dcomprehensive.metrics=json",
+                "-cp", System.getProperty("java.class.path"), "comprehensive.TextGenerator",
+                "C:\\Users\\u1433029\\IdeaProjects\\CS 2420\\src\\comprehensive\\MobyDick.txt", "the", "5", "one")
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD).start();
+        String report = new String(process.getErrorStream().readAllBytes(), StandardCharsets.UTF_8);
+        assertEquals(0, process.waitFor());
+
+        assertTrue(report.contains("\"enabled\":true"));
+        assertTrue(report.contains("\"build model\":{\"calls\":1,"));
+        Matcher tokens = Pattern.compile("\"counters\":\\{\"bytesRead\":(\\d+),\"tokens\":(\\d+)").matcher(report);
+        assertTrue(tokens.find());
+        assertTrue(Long.parseLong(tokens.group(1)) > 0);
+        assertTrue(Long.parseLong(tokens.group(2)) > 200000);
+    }
+
+    @Test
+    void testParallelSmallChunksMatchSequential() throws IOException {
+        //multi-byte words, runs of mixed whitespace and punctuation, so splits land inside all of them
+        File text = File.createTempFile("chunks", ".txt");
+        try (OutputStream out = new FileOutputStream(text)) {
+            for (int i = 0; i < 40; i++)
+                out.write(("naïve café  \t über—straße " + i % 7 + "\r\n\n   ÆØÅ æøå ﬁne \u212Aelvin İstanbul\t\t"
+                        + "the the things.what? 日本語 テキスト  the\u00A0end " + i % 3 + "\n").getBytes(StandardCharsets.UTF_8));
+        }
+
+        String[] paths = {text.getPath(), "C:\\Users\\u1433029\\IdeaProjects\\CS 2420\\src\\comprehensive\\MobyDick.txt"};
+        long[][] chunkSizes = {{1, 2, 3, 5, 8, 13, 64}, {4096, 65536}};
+        for (int p = 0; p < paths.length; p++) {
+            BigramModel sequential = new TextGeneratorFunctor(paths[p]).getModel();
+            for (long chunkSize : chunkSizes[p]) {
+                BigramModel parallel = ParallelModelBuilder.build(new File(paths[p]), new ForkJoinPool(4), chunkSize);
+                assertEquals(sequential.size(), parallel.size());
+                assertEquals(sequential.bigramCount(), parallel.bigramCount());
+                //every successor of every word with the same count
+                for (int id = 0; id < sequential.size(); id++) {
+                    int other = parallel.find(sequential.wordOf(id));
+                    assertEquals(sequential.successorCount(id), parallel.successorCount(other));
+                    for (int i = 0; i < sequential.successorCount(id); i++) {
+                        assertEquals(sequential.wordOf(sequential.successor(id, i)), parallel.wordOf(parallel.successor(other, i)));
+                        assertEquals(sequential.count(id, i), parallel.count(other, i));
+                    }
+                }
+            }
+        }
+        text.delete();
+    }
+
+    @Test
+    void testQueryParse() {
+        Query query = Query.parse("  whale   7  all ");
+        assertEquals("whale", query.getSeed());
+        assertEquals(7, query.getK());
+        assertEquals(true, query.getAllOrOne());
+        assertEquals(null, Query.parse("whale 0").getAllOrOne());
+
+        //missing fields, bad k, unknown mode, too many fields
+        for (String line : new String[]{"", "the", "the x", "the 1.5", "the -1", "the 99999999999", "the 3 some", "the 3 one extra"})
+            assertThrows(IllegalArgumentException.class, () -> Query.parse(line));
+    }
+
+    @Test
+    void testServerRoundTrip() throws IOException {
+        BigramModel model = new TextGeneratorFunctor("C:\\Users\\u1433029\\IdeaProjects\\CS 2420\\src\\comprehensive\\MobyDick.txt").getModel();
+        TextGeneratorServer server = new TextGeneratorServer(model, 0);
+        Thread.startVirtualThread(() -> {
+            try {
+                server.serve();
+            } catch (IOException e) {
+                //closed by the test
+            }
+        });
+
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), server.getPort());
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+             Writer out = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8)) {
+            out.write("whale 5\nthe 6 one\nthe x\nthe 3 sometimes\nSTATS\nthe 0 all\n");
+            out.flush();
+            assertEquals(Query.parse("whale 5").answer(model), in.readLine().strip());
+            assertEquals("the whale and the whale and", in.readLine().strip());
+            assertEquals("ERROR k must be an int", in.readLine());
+            assertEquals("ERROR mode must be one or all", in.readLine());
+            assertTrue(in.readLine().startsWith("cache "));
+            assertEquals("", in.readLine());
+        } finally {
+            server.close();
+        }
+    }
+
+    @Test
+    void testPipelinedMatchesSequential() throws FileNotFoundException {
+        TextGeneratorFunctor sequential = new TextGeneratorFunctor("C:\\Users\\u1433029\\IdeaProjects\\CS 2420\\src\\comprehensive\\MobyDick.txt", "the", "10");
+        TextGeneratorFunctor pipelined = new TextGeneratorFunctor("C:\\Users\\u1433029\\IdeaProjects\\CS 2420\\src\\comprehensive\\MobyDick.txt", "the", "10");
+        pipelined.setPipelined(true);
+        assertEquals(sequential.getModel().bigramCount(), pipelined.getModel().bigramCount());
+        assertEquals(sequential.getModel().topK("whale", 10).toString(), pipelined.getModel().topK("whale", 10).toString());
+        assertTrue(pipelined.getPipelineStalls().contains("counter"));
+    }
+
+    @Test
+    void testOffHeapMatchesHeap() throws FileNotFoundException {
+        TextGeneratorFunctor heap = new TextGeneratorFunctor("C:\\Users\\u1433029\\IdeaProjects\\CS 2420\\src\\comprehensive\\MobyDick.txt", "the", "30", "all");
+        TextGeneratorFunctor offHeap = new TextGeneratorFunctor("C:\\Users\\u1433029\\IdeaProjects\\CS 2420\\src\\comprehensive\\MobyDick.txt", "the", "30", "all");
+        heap.setRandomSeed(11);
+        offHeap.setRandomSeed(11);
+        offHeap.setOffHeap(true);
+        assertEquals(heap.getModel().find("whale"), offHeap.getModel().find("whale"));
+        assertEquals(-1, offHeap.getModel().find("notaword"));
+        assertEquals(heap.getModel().topK("the", 10).toString(), offHeap.getModel().topK("the", 10).toString());
+        assertEquals(heap.fourthArgumentAll().toString(), offHeap.fourthArgumentAll().toString());
+    }
+
+    @Test
+    void testWordOrderMatchesStringOrder() throws FileNotFoundException {
+        BigramModel model = new TextGeneratorFunctor("C:\\Users\\u1433029\\IdeaProjects\\CS 2420\\src\\comprehensive\\MobyDick.txt", "the", "10").getModel();
+        Vocabulary vocabulary = model.vocabulary();
+        String[] words = new String[vocabulary.size()];
+        for (int id = 0; id < words.length; id++)
+            words[id] = vocabulary.wordOf(id);
+        Arrays.sort(words);
+        int[] ids = vocabulary.idsInWordOrder();
+        for (int r = 0; r < ids.length; r++)
+            assertEquals(words[r], vocabulary.wordOf(ids[r]));
+        Vocabulary offHeap = OffHeapModel.copy(model).vocabulary();
+        assertTrue(Arrays.equals(ids, offHeap.idsInWordOrder()));
+    }
+
+    @Test
+    void testBatchQueryOverIndex() throws IOException {
+        String path = "C:\\Users\\u1433029\\IdeaProjects\\CS 2420\\src\\comprehensive\\MobyDick.txt";
+        File index = File.createTempFile("MobyDick", ".tgx");
+        index.deleteOnExit();
+        PositionalIndex.build(path, index.getPath());
+        BatchQuery batch = new BatchQuery(List.of(Query.parse("whale 5"), Query.parse("the 3"), Query.parse("notaword 2")));
+        StringWriter fromText = new StringWriter();
+        StringWriter fromIndex = new StringWriter();
+        batch.answer(path, fromText);
+        batch.answer(index.getPath(), fromIndex);
+        assertEquals(fromText.toString(), fromIndex.toString());
+        assertTrue(fromIndex.toString().startsWith(Query.parse("whale 5").answer(new TextGeneratorFunctor(path).getModel())));
+    }
+
+    @Test
+    void testSeedSearchGivesUpOnKelvinSignAnywhere() throws IOException {
+        File file = File.createTempFile("kelvin", ".txt");
+        file.deleteOnExit();
+        try (Writer out = new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8)) {
+            for (int i = 0; i < 10_000; i++)
+                out.write("like the whale, kin of the sea\n");
+            //only after every match, inside bytes the search skips
+            out.write("xxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxx \u212Aind xxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxx\n");
+        }
+        assertEquals(null, SeedSearch.countSuccessors(file.toPath(), "like"));
+        assertEquals(null, SeedSearch.countSuccessors(file.toPath(), "kin"));
+        assertEquals(10_000, SeedSearch.countSuccessors(file.toPath(), "whale").get("kin").getOccurrence());
+        assertEquals(10_000, SeedSearch.countSuccessors(file.toPath(), "the").get("whale").getOccurrence());
+    }
+
+    @Test
+    void testTextOpenedByEachPass() throws FileNotFoundException {
+        assertThrows(FileNotFoundException.class, () -> new TextGeneratorFunctor("C:\\Users\\u1433029\\IdeaProjects\\CS 2420\\src\\comprehensive\\missing.txt", "the", "3"));
+        TextGeneratorFunctor func = new TextGeneratorFunctor("C:\\Users\\u1433029\\IdeaProjects\\CS 2420\\src\\comprehensive\\MobyDick.txt", "whale", "5");
+        func.setApproximateCounters(1 << 16);
+        String first = func.kMostProbableWords().toString();
+        assertEquals(first, func.kMostProbableWords().toString());
+        assertEquals(first, new TextGeneratorFunctor("C:\\Users\\u1433029\\IdeaProjects\\CS 2420\\src\\comprehensive\\MobyDick.txt", "whale", "5").kMostProbableWords().toString());
+
+        TextGeneratorFunctor words = new TextGeneratorFunctor("C:\\Users\\u1433029\\IdeaProjects\\CS 2420\\src\\comprehensive\\helloWorld.txt", "hello", "1");
+        while (words.nextWord() != null);
+        assertEquals(null, words.nextWord());
+    }
 }
@@ -0,0 +1,144 @@
+package comprehensive;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Keeps one model in memory and answers queries over a local socket, so a query costs a few
+ * lookups instead of starting a JVM and reading the whole text file.
+ * <p>
+ * Every connection is handled on its own virtual thread and may send any number of queries,
+ * one per line: "seed k", "seed k one" or "seed k all". Each query is answered with one line of
+ * words separated by spaces, or a line starting with "ERROR". Words are streamed as they are generated, so a large
+ * k costs no memory, and a query that fails ends its line with the ERROR. All connections read the same model.
+ * The line "STATS" is answered with the hits, misses and evictions of the model's SuccessorCache.
+ *
+ * @author Elijah Tolton and Canon Curtis
+ * @version 10/18/2026
+ */
+public class TextGeneratorServer {
+    private final BigramModel model;
+    private final ServerSocket serverSocket;
+
+    /**
+     * Creates a server answering from the given model on a port of the loopback address.
+     *
+     * @param model - model shared by every query
+     * @param port - port to listen on, 0 for any free port
+     * @throws IOException - if the port cannot be opened
+     */
+    public TextGeneratorServer(BigramModel model, int port) throws IOException {
+        this.model = model;
+        serverSocket = new ServerSocket(port, 128, InetAddress.getLoopbackAddress());
+    }
+
+    /**
+     * Starts a server for a text file or compiled model.
+     *
+     * @param args - args[0] port to listen on, args[1] text file or compiled model
+     * @throws IOException - if the file cannot be read or the port cannot be opened
+     */
+    public static void main(String[] args) throws IOException {
+        BigramModel model = new TextGeneratorFunctor(args[1]).getModel();
+        TextGeneratorServer server = new TextGeneratorServer(model, Integer.parseInt(args[0]));
+        System.out.println("Listening on port " + server.getPort());
+        server.serve();
+    }
+
+    /**
+     * Returns the port this server listens on.
+     */
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Accepts connections until the server is closed, each on a new virtual thread.
+     *
+     * @throws IOException - if accepting fails for a reason other than closing
+     */
+    public void serve() throws IOException {
+        while (!serverSocket.isClosed()) {
+            Socket socket;
+            try {
+                socket = serverSocket.accept();
+            } catch (IOException e) {
+                if (serverSocket.isClosed())
+                    return;
+                throw e;
+            }
+            Thread.startVirtualThread(() -> handle(socket));
+        }
+    }
+
+    /**
+     * Stops accepting connections.
+     */
+    public void close() throws IOException {
+        serverSocket.close();
+    }
+
+    /**
+     * Answers every query of one connection until the client closes it.
+     *
+     * @param socket - connection to a client
+     */
+    private void handle(Socket socket) {
+        try (socket;
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+             OutputStream out = new BufferedOutputStream(socket.getOutputStream())) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                answer(line, out);
+                out.write('\n');
+                out.flush();
+            }
+        } catch (IOException e) {
+            //client went away, nothing left to answer
+        }
+    }
+
+    /**
+     * Answers one query line.
+     *
+     * @param line - "seed k" optionally followed by "one" or "all", or "STATS"
+     * @return - words separated by spaces, the cache statistics, or an ERROR line
+     */
+    String answer(String line) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            answer(line, out);
+        } catch (IOException e) {
+            //a byte array never fails to write
+            throw new UncheckedIOException(e);
+        }
+        return out.toString(StandardCharsets.UTF_8).trim();
+    }
+
+    /**
+     * Writes the answer of one query line without its line break.
+     * A failure while answering, even running out of memory, is written as ERROR instead of dropping the connection.
+     *
+     * @param line - "seed k" optionally followed by "one" or "all", or "STATS"
+     * @param out - where the answer is written
+     * @throws IOException - if the client went away
+     */
+    void answer(String line, OutputStream out) throws IOException {
+        //never a query, a query always has k
+        if (line.strip().equals("STATS")) {
+            out.write(model.getCache().toString().getBytes(StandardCharsets.UTF_8));
+            return;
+        }
+        try {
+            Query.parse(line).write(model, out);
+        } catch (IllegalArgumentException e) {
+            out.write(("ERROR " + e.getMessage()).getBytes(StandardCharsets.UTF_8));
+        } catch (RuntimeException | OutOfMemoryError e) {
+            //only this query's memory is lost, other connections keep going
+            out.write(("ERROR " + e).getBytes(StandardCharsets.UTF_8));
+        }
+    }
+}
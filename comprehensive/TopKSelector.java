@@ -0,0 +1,90 @@
+package comprehensive;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Keeps the k largest items of a stream of items seen one at a time. A BinaryMaxHeap with the
+ * comparator reversed keeps the smallest kept item on top, so each new item is compared to it
+ * and replaces it only if larger. Only k items are ever stored.
+ *
+ * @author Elijah Tolton and Canon Curtis
+ * @version 10/18/2026
+ * @param <T> - type of item
+ */
+public class TopKSelector<T> {
+    private final int k;
+    private final Comparator<? super T> cmp;
+    //max heap under the reversed comparator, so the top is the smallest item kept
+    private final BinaryMaxHeap<T> kept;
+
+    /**
+     * Creates a selector for the k largest items ordered by the given Comparator.
+     *
+     * @param k - number of items to keep
+     * @param cmp - Comparator that orders items of T
+     */
+    public TopKSelector(int k, Comparator<? super T> cmp) {
+        this.k = k;
+        this.cmp = cmp;
+        kept = new BinaryMaxHeap<>(Collections.reverseOrder(cmp));
+    }
+
+    /**
+     * Creates a selector for the k largest items using their natural ordering.
+     *
+     * @param k - number of items to keep
+     * @return - empty selector
+     * @param <T> - type of item, comparable to itself
+     */
+    public static <T extends Comparable<? super T>> TopKSelector<T> naturalOrder(int k) {
+        return new TopKSelector<>(k, Comparator.naturalOrder());
+    }
+
+    /**
+     * Looks at one item, keeping it if it is among the k largest so far.
+     * O(log k)
+     *
+     * @param item - item to look at
+     */
+    public void offer(T item) {
+        if (kept.size() < k)
+            kept.add(item);
+        else if (k > 0 && cmp.compare(item, kept.peek()) > 0)
+            kept.replaceMax(item);
+    }
+
+    /**
+     * Looks at every item, keeping the k largest.
+     * O(N log k)
+     *
+     * @param items - items to look at
+     */
+    public void offerAll(Iterable<? extends T> items) {
+        for (T item : items)
+            offer(item);
+    }
+
+    /**
+     * Returns the number of items kept, at most k.
+     */
+    public int size() {
+        return kept.size();
+    }
+
+    /**
+     * Removes the kept items and returns them largest first.
+     * O(k log k)
+     *
+     * @return - list of the k largest items, largest first
+     */
+    public List<T> extractSorted() {
+        ArrayList<T> out = new ArrayList<>(kept.size());
+        while (!kept.isEmpty())
+            out.add(kept.extractMax());
+        Collections.reverse(out);
+        return out;
+    }
+}
@@ -0,0 +1,264 @@
+package comprehensive;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Gives every distinct word a small int id, so word pairs can be stored as pairs of ints.
+ * Ids are handed out in the order words are first seen, starting at 0.
+ * <p>
+ * The UTF-8 bytes of every word are kept back to back in one byte array, the arena, with the start of
+ * each word in an int array. Words are hashed and compared as bytes, so a word still sitting in the
+ * tokenizer's buffer is looked up without making a String. Open addressing table of ids with linear probing,
+ * a String is only made when wordOf asks for one, e.g. when the word is printed.
+ *
+ * @author Elijah Tolton and Canon Curtis
+ * @version 10/18/2026
+ */
+public class Vocabulary {
+    //UTF-8 bytes of every word, word id is bytes[starts[id]] to bytes[starts[id + 1] - 1]
+    private byte[] bytes;
+    private int[] starts;
+    private int[] hashes;
+    //id + 1 of the word in each slot, 0 if the slot is empty
+    private int[] table;
+    private int size;
+
+    //Strings made by wordOf, null until asked for
+    private String[] strings;
+
+    /**
+     * Creates an empty vocabulary.
+     */
+    public Vocabulary() {
+        bytes = new byte[256];
+        starts = new int[17];
+        hashes = new int[16];
+        table = new int[32];
+    }
+
+    /**
+     * Returns the id of word, giving it the next id if it hasn't been seen before.
+     * O(length of word) average case
+     *
+     * @param word - word to look up
+     * @return - id of word
+     */
+    public int idOf(String word) {
+        byte[] encoded = word.getBytes(StandardCharsets.UTF_8);
+        return idOf(encoded, 0, encoded.length, hash(encoded, 0, encoded.length));
+    }
+
+    /**
+     * Returns the id of the word in bytes[offset] to bytes[offset + length - 1], copying it into the arena
+     * if it hasn't been seen before. Nothing is allocated for a word already in the vocabulary.
+     * O(length of word) average case
+     *
+     * @param word - UTF-8 bytes holding the word, e.g. WordTokenizer.wordBytes()
+     * @param offset - first byte of the word
+     * @param length - number of bytes in the word
+     * @param hash - hash(word, offset, length), e.g. WordTokenizer.wordHash()
+     * @return - id of word
+     */
+    public int idOf(byte[] word, int offset, int length, int hash) {
+        int mask = table.length - 1;
+        int i = spread(hash) & mask;
+        while (table[i] != 0) {
+            if (matches(table[i] - 1, word, offset, length, hash))
+                return table[i] - 1;
+            i = (i + 1) & mask;
+        }
+
+        //new word
+        if (size == hashes.length) {
+            hashes = Arrays.copyOf(hashes, size * 2);
+            starts = Arrays.copyOf(starts, size * 2 + 1);
+        }
+        int start = starts[size];
+        if (start + length > bytes.length)
+            bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, start + length));
+        System.arraycopy(word, offset, bytes, start, length);
+        starts[size + 1] = start + length;
+        hashes[size] = hash;
+
+        table[i] = ++size;
+        if (size * 2 > table.length)
+            rehash();
+        return size - 1;
+    }
+
+    /**
+     * Returns the id a word of another vocabulary has in this one, adding it if needed.
+     * O(length of word) average case
+     *
+     * @param other - vocabulary holding the word
+     * @param otherId - id of the word in other
+     * @return - id of the same word in this vocabulary
+     */
+    public int idOf(Vocabulary other, int otherId) {
+        int start = other.starts[otherId];
+        return idOf(other.bytes, start, other.starts[otherId + 1] - start, other.hashes[otherId]);
+    }
+
+    /**
+     * Returns the id of word without adding it.
+     * O(length of word) average case
+     *
+     * @param word - word to look up
+     * @return - id of word, or -1 if the word has never been seen
+     */
+    public int find(String word) {
+        byte[] encoded = word.getBytes(StandardCharsets.UTF_8);
+        return find(encoded, 0, encoded.length, hash(encoded, 0, encoded.length));
+    }
+
+    /**
+     * Returns the id of the word in bytes[offset] to bytes[offset + length - 1] without adding it.
+     * O(length of word) average case, no allocation
+     *
+     * @param word - UTF-8 bytes holding the word
+     * @param offset - first byte of the word
+     * @param length - number of bytes in the word
+     * @param hash - hash(word, offset, length)
+     * @return - id of word, or -1 if the word has never been seen
+     */
+    public int find(byte[] word, int offset, int length, int hash) {
+        int mask = table.length - 1;
+        int i = spread(hash) & mask;
+        while (table[i] != 0) {
+            if (matches(table[i] - 1, word, offset, length, hash))
+                return table[i] - 1;
+            i = (i + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the word with the given id, making its String the first time it is asked for.
+     * O(length of word) the first time, O(1) after
+     *
+     * @param id - id of a word
+     * @return - word
+     */
+    public String wordOf(int id) {
+        String[] made = strings;
+        if (made == null || made.length < size)
+            strings = made = made == null ? new String[hashes.length] : Arrays.copyOf(made, hashes.length);
+
+        String word = made[id];
+        if (word == null)
+            made[id] = word = new String(bytes, starts[id], starts[id + 1] - starts[id], StandardCharsets.UTF_8);
+        return word;
+    }
+
+    /**
+     * Returns the number of UTF-8 bytes of the word with the given id.
+     */
+    public int wordLength(int id) {
+        return starts[id + 1] - starts[id];
+    }
+
+    /**
+     * Copies the UTF-8 bytes of the word with the given id, e.g. straight into an output buffer.
+     * O(length of word), no allocation
+     *
+     * @param id - id of a word
+     * @param destination - array to copy into, with room for wordLength(id) bytes
+     * @param offset - where the first byte goes
+     */
+    public void copyWord(int id, byte[] destination, int offset) {
+        System.arraycopy(bytes, starts[id], destination, offset, starts[id + 1] - starts[id]);
+    }
+
+    /**
+     * Returns every id ordered alphabetically by its word without making a String. Words are lowercase ASCII,
+     * so comparing their bytes unsigned gives the same order as comparing Strings.
+     * O(V log V)
+     *
+     * @return - ids, alphabetically smallest word first
+     */
+    public int[] idsInWordOrder() {
+        int[] ids = new int[size()];
+        for (int id = 0; id < ids.length; id++)
+            ids[id] = id;
+        mergeSort(ids, new int[ids.length], 0, ids.length);
+        return ids;
+    }
+
+    /**
+     * Compares the bytes of two words, unsigned, like String.compareTo for ASCII words.
+     */
+    int compareWords(int a, int b) {
+        return Arrays.compareUnsigned(bytes, starts[a], starts[a + 1], bytes, starts[b], starts[b + 1]);
+    }
+
+    /**
+     * Sorts ids[from] to ids[to - 1] by word with a merge sort, buffer holds a copy while merging.
+     */
+    private void mergeSort(int[] ids, int[] buffer, int from, int to) {
+        if (to - from < 2)
+            return;
+        int middle = (from + to) >>> 1;
+        mergeSort(ids, buffer, from, middle);
+        mergeSort(ids, buffer, middle, to);
+        //halves already in order
+        if (compareWords(ids[middle - 1], ids[middle]) <= 0)
+            return;
+
+        System.arraycopy(ids, from, buffer, from, to - from);
+        int i = from;
+        int j = middle;
+        for (int k = from; k < to; k++)
+            ids[k] = j >= to || (i < middle && compareWords(buffer[i], buffer[j]) <= 0) ? buffer[i++] : buffer[j++];
+    }
+
+    /**
+     * Returns the number of distinct words.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Hash of a word's UTF-8 bytes, the same as String.hashCode for words of ASCII characters.
+     *
+     * @param word - bytes holding the word
+     * @param offset - first byte of the word
+     * @param length - number of bytes in the word
+     */
+    public static int hash(byte[] word, int offset, int length) {
+        int h = 0;
+        for (int i = offset; i < offset + length; i++)
+            h = 31 * h + (word[i] & 0xFF);
+        return h;
+    }
+
+    /**
+     * Returns true if the word with the given id is the given bytes.
+     */
+    private boolean matches(int id, byte[] word, int offset, int length, int hash) {
+        return hashes[id] == hash
+                && Arrays.equals(bytes, starts[id], starts[id + 1], word, offset, offset + length);
+    }
+
+    /**
+     * Doubles the table, keeping it at most half full.
+     */
+    private void rehash() {
+        table = new int[table.length * 2];
+        int mask = table.length - 1;
+        for (int id = 0; id < size; id++) {
+            int i = spread(hashes[id]) & mask;
+            while (table[i] != 0)
+                i = (i + 1) & mask;
+            table[i] = id + 1;
+        }
+    }
+
+    /**
+     * Mixes the high bits of a hash into the low bits used to pick a slot.
+     */
+    static int spread(int h) {
+        return h ^ (h >>> 16);
+    }
+}
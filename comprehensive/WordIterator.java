@@ -0,0 +1,137 @@
+package comprehensive;
+
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.random.RandomGenerator;
+
+/**
+ * Pulls the words of the "one" or "all" mode one at a time as word ids, so any number of words
+ * can be generated in constant memory. The first word is the seed, each following word is the most
+ * probable or a weighted random successor of the word before it, starting over at the seed when a
+ * word has no successors. A seed that isn't in the model is returned as id -1.
+ * <p>
+ * In weighted mode the alias table of a word is asked of the model once, the first time the word is visited,
+ * and kept by the iterator after that. The model's cache is only there to share tables between queries, so
+ * drawing a word never takes a cache lock, and a table too big for the cache is still built only once.
+ *
+ * @author Elijah Tolton and Canon Curtis
+ * @version 10/18/2026
+ */
+public class WordIterator implements PrimitiveIterator.OfInt {
+    private final BigramModel model;
+    private final int seedId;
+    private final boolean weighted;
+    private final RandomGenerator random;
+    private long remaining;
+    private int curr;
+    private TableMemo tables; // alias tables of visited words, made on the first weighted draw
+
+    /**
+     * Creates an iterator over k words starting at the seed.
+     *
+     * @param model - model to follow
+     * @param seed - first word
+     * @param k - number of words
+     * @param weighted - true to pick words at random by occurrences ("all"), false for the most probable ("one")
+     * @param random - source of randomness for weighted picks
+     */
+    public WordIterator(BigramModel model, String seed, long k, boolean weighted, RandomGenerator random) {
+        this.model = model;
+        this.seedId = model.find(seed);
+        this.weighted = weighted;
+        this.random = random;
+        this.remaining = k;
+        this.curr = seedId;
+    }
+
+    /**
+     * Returns true if there are more words.
+     */
+    @Override
+    public boolean hasNext() {
+        return remaining > 0;
+    }
+
+    /**
+     * Returns the id of the next word and moves on to the word after it.
+     * O(1), the first visit of a word in weighted mode builds its alias table
+     *
+     * @return - word id, -1 for a seed not in the model
+     * @throws NoSuchElementException - if all k words have been returned
+     */
+    @Override
+    public int nextInt() {
+        if (remaining <= 0)
+            throw new NoSuchElementException("No more words");
+        remaining--;
+
+        int out = curr;
+        //If nothing follows set back to seed
+        if (curr < 0 || model.successorCount(curr) == 0)
+            curr = seedId;
+        else if (weighted)
+            curr = model.successor(curr, aliasTable(curr).sample(random));
+        else
+            curr = model.mostLikely(curr);
+        return out;
+    }
+
+    /**
+     * Returns the alias table of a word, from the model only the first time the word is visited.
+     * O(1) average after the first visit
+     */
+    private AliasTable aliasTable(int id) {
+        if (tables == null)
+            tables = new TableMemo();
+        AliasTable table = tables.get(id);
+        if (table == null) {
+            table = model.aliasTable(id);
+            tables.put(id, table);
+        }
+        return table;
+    }
+
+    /**
+     * Open addressing map from word id to alias table with linear probing, without boxing the ids.
+     * Holds only the words one iterator visits.
+     */
+    private static class TableMemo {
+        private int[] ids = new int[16];
+        private AliasTable[] values = new AliasTable[16];
+        private int size;
+
+        /**
+         * Returns the table of a word, or null if it isn't kept.
+         */
+        private AliasTable get(int id) {
+            int mask = ids.length - 1;
+            for (int slot = Vocabulary.spread(id * 0x9E3779B9) & mask; values[slot] != null; slot = (slot + 1) & mask)
+                if (ids[slot] == id)
+                    return values[slot];
+            return null;
+        }
+
+        /**
+         * Keeps the table of a word that isn't kept yet, doubling the arrays at half full.
+         */
+        private void put(int id, AliasTable table) {
+            if (2 * (size + 1) > ids.length) {
+                int[] oldIds = ids;
+                AliasTable[] oldValues = values;
+                ids = new int[oldIds.length * 2];
+                values = new AliasTable[oldIds.length * 2];
+                size = 0;
+                for (int i = 0; i < oldIds.length; i++)
+                    if (oldValues[i] != null)
+                        put(oldIds[i], oldValues[i]);
+            }
+            int mask = ids.length - 1;
+            int slot = Vocabulary.spread(id * 0x9E3779B9) & mask;
+            while (values[slot] != null)
+                slot = (slot + 1) & mask;
+            ids[slot] = id;
+            values[slot] = table;
+            size++;
+        }
+    }
+}
@@ -0,0 +1,308 @@
+package comprehensive;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Splits UTF-8 text into lowercase words without Scanner or regular expressions.
+ * Bytes are read into a reusable buffer and each word is built in a reusable byte array,
+ * a String is only made the first time a word shows up.
+ * <p>
+ * Words follow the rules TextGenerator has always used: the text is split at whitespace,
+ * each piece is lowercased and the word is the first run of letters, digits and underscores.
+ * Pieces that start with punctuation, such as "(sic)" or "'o", are skipped.
+ *
+ * @author Elijah Tolton and Canon Curtis
+ * @version 10/18/2026
+ */
+public class WordTokenizer implements Closeable {
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int KELVIN_SIGN = 0x212A;
+    private static final int CAPITAL_DOTTED_I = 0x0130;
+
+    private final InputStream in;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private int position;
+    private int limit;
+    private boolean endOfInput;
+
+    //current word, always ASCII since every word character is [a-z0-9_]
+    private byte[] word = new byte[64];
+    private int wordLength;
+    private int wordHash;
+
+    //interned Strings of every word seen so far, open addressing
+    private String[] interned = new String[1024];
+    private int[] internedHashes = new int[1024];
+    private int internedCount;
+
+    /**
+     * Creates a tokenizer reading from the given stream. The stream is closed once it is used up.
+     *
+     * @param in - UTF-8 encoded text
+     */
+    public WordTokenizer(InputStream in) {
+        this.in = in;
+    }
+
+    /**
+     * Moves to the next word of the input.
+     * O(length of word and any skipped text), no allocation unless the buffer has to grow.
+     *
+     * @return - true if there was another word, false at the end of the input
+     * @throws IOException - if the input cannot be read
+     */
+    public boolean nextToken() throws IOException {
+        int c = nextCodePoint();
+        while (true) {
+            //skip whitespace between pieces
+            while (c >= 0 && isWhitespace(c))
+                c = nextCodePoint();
+            if (c < 0)
+                return false;
+
+            //keep the first run of word characters of this piece
+            wordLength = 0;
+            wordHash = 0;
+            while (c >= 0 && !isWhitespace(c)) {
+                int lower = toLowerWordChar(c);
+                if (lower < 0)
+                    break;
+                append(lower);
+                //lowercase of capital dotted I is "i" and a combining dot, which ends the word
+                if (c == CAPITAL_DOTTED_I)
+                    break;
+                c = nextCodePoint();
+            }
+
+            //rest of the piece is dropped
+            while (c >= 0 && !isWhitespace(c))
+                c = nextCodePoint();
+
+            if (wordLength > 0) {
+                if (Metrics.ENABLED)
+                    Metrics.count(Metrics.Counter.TOKENS);
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Returns the next word as a String, the same String object every time the word appears.
+     * O(length of word) average case
+     *
+     * @return - next word, or null at the end of the input
+     * @throws IOException - if the input cannot be read
+     */
+    public String nextWord() throws IOException {
+        if (!nextToken())
+            return null;
+        return intern();
+    }
+
+    /**
+     * Moves to the next word of the input and returns its id in the vocabulary, adding the word if it is new.
+     * The word is looked up straight from the word buffer, nothing is allocated for a word already seen.
+     * O(length of word and any skipped text) average case
+     *
+     * @param vocabulary - vocabulary giving out ids
+     * @return - id of the next word, or -1 at the end of the input
+     * @throws IOException - if the input cannot be read
+     */
+    public int nextId(Vocabulary vocabulary) throws IOException {
+        if (!nextToken())
+            return -1;
+        return vocabulary.idOf(word, 0, wordLength, wordHash);
+    }
+
+    /**
+     * Returns the backing array of the current word. Only the first wordLength() bytes are valid,
+     * and the contents change on the next call to nextToken().
+     */
+    public byte[] wordBytes() {
+        return word;
+    }
+
+    /**
+     * Returns the number of bytes in the current word.
+     */
+    public int wordLength() {
+        return wordLength;
+    }
+
+    /**
+     * Returns Vocabulary.hash of the current word, computed while the word was read.
+     */
+    public int wordHash() {
+        return wordHash;
+    }
+
+    /**
+     * Closes the underlying stream.
+     */
+    @Override
+    public void close() throws IOException {
+        endOfInput = true;
+        in.close();
+    }
+
+    /**
+     * Finds the interned String equal to the current word, making one if the word is new.
+     */
+    private String intern() {
+        int mask = interned.length - 1;
+        int i = wordHash & mask;
+        while (interned[i] != null) {
+            if (internedHashes[i] == wordHash && sameWord(interned[i]))
+                return interned[i];
+            i = (i + 1) & mask;
+        }
+
+        String s = new String(word, 0, wordLength, StandardCharsets.ISO_8859_1);
+        interned[i] = s;
+        internedHashes[i] = wordHash;
+        if (++internedCount * 2 > interned.length)
+            growInterned();
+        return s;
+    }
+
+    /**
+     * Compares the current word to s without making a String.
+     */
+    private boolean sameWord(String s) {
+        if (s.length() != wordLength)
+            return false;
+        for (int i = 0; i < wordLength; i++)
+            if (s.charAt(i) != word[i])
+                return false;
+        return true;
+    }
+
+    /**
+     * Doubles the interned table, keeping it at most half full.
+     */
+    private void growInterned() {
+        String[] oldWords = interned;
+        int[] oldHashes = internedHashes;
+        interned = new String[oldWords.length * 2];
+        internedHashes = new int[oldWords.length * 2];
+        int mask = interned.length - 1;
+        for (int j = 0; j < oldWords.length; j++) {
+            if (oldWords[j] == null)
+                continue;
+            int i = oldHashes[j] & mask;
+            while (interned[i] != null)
+                i = (i + 1) & mask;
+            interned[i] = oldWords[j];
+            internedHashes[i] = oldHashes[j];
+        }
+    }
+
+    /**
+     * Adds an ASCII character to the current word.
+     */
+    private void append(int c) {
+        if (wordLength == word.length) {
+            byte[] temp = new byte[word.length * 2];
+            System.arraycopy(word, 0, temp, 0, wordLength);
+            word = temp;
+        }
+        word[wordLength++] = (byte) c;
+        wordHash = 31 * wordHash + c;
+    }
+
+    /**
+     * Returns the next byte of input, refilling the buffer when needed.
+     *
+     * @return - byte value 0-255, or -1 at the end of the input
+     */
+    private int nextByte() throws IOException {
+        if (position == limit) {
+            if (endOfInput)
+                return -1;
+            limit = in.read(buffer, 0, buffer.length);
+            position = 0;
+            if (limit <= 0) {
+                limit = 0;
+                close();
+                return -1;
+            }
+            if (Metrics.ENABLED)
+                Metrics.add(Metrics.Counter.BYTES_READ, limit);
+        }
+        return buffer[position++] & 0xFF;
+    }
+
+    /**
+     * Decodes the next UTF-8 code point of input. Malformed bytes decode to U+FFFD like Scanner does.
+     *
+     * @return - next code point, or -1 at the end of the input
+     */
+    private int nextCodePoint() throws IOException {
+        int b = nextByte();
+        if (b < 0x80)
+            return b;
+
+        int extra;
+        int cp;
+        if (b >= 0xF8) {
+            return 0xFFFD;
+        } else if (b >= 0xF0) {
+            extra = 3;
+            cp = b & 0x07;
+        } else if (b >= 0xE0) {
+            extra = 2;
+            cp = b & 0x0F;
+        } else if (b >= 0xC0) {
+            extra = 1;
+            cp = b & 0x1F;
+        } else {
+            return 0xFFFD;
+        }
+
+        for (int i = 0; i < extra; i++) {
+            //continuation bytes always look like 10xxxxxx
+            int next = nextByte();
+            if (next < 0)
+                return 0xFFFD;
+            if ((next & 0xC0) != 0x80) {
+                position--;
+                return 0xFFFD;
+            }
+            cp = (cp << 6) | (next & 0x3F);
+        }
+        return cp;
+    }
+
+    /**
+     * Returns true if the code point separates pieces of text, matching Scanner's default delimiter.
+     *
+     * @param c - code point
+     */
+    static boolean isWhitespace(int c) {
+        if (c < 0x80)
+            return c == ' ' || (c >= '\t' && c <= '\r') || (c >= 0x1C && c <= 0x1F);
+        return Character.isWhitespace(c);
+    }
+
+    /**
+     * Lowercases a code point and returns it if it is a word character [a-z0-9_].
+     *
+     * @param c - code point
+     * @return - lowercase ASCII word character, or -1 if c ends a word
+     */
+    static int toLowerWordChar(int c) {
+        if ((c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') || c == '_')
+            return c;
+        if (c >= 'A' && c <= 'Z')
+            return c + ('a' - 'A');
+        //Kelvin sign and capital dotted I are the only characters that lowercase to ASCII letters
+        if (c == KELVIN_SIGN)
+            return 'k';
+        if (c == CAPITAL_DOTTED_I)
+            return 'i';
+        return -1;
+    }
+}
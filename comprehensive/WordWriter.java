@@ -0,0 +1,143 @@
+package comprehensive;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.PrimitiveIterator;
+
+/**
+ * Writes words straight to an OutputStream as UTF-8 bytes through one large buffer, each word
+ * followed by a space. A word id is written by copying its bytes out of the vocabulary into the buffer,
+ * with no String, concatenation or locking per word.
+ *
+ * @author Elijah Tolton and Canon Curtis
+ * @version 10/18/2026
+ */
+public class WordWriter implements Closeable {
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    private final OutputStream out;
+    private final Vocabulary vocabulary;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private int position;
+
+    /**
+     * Creates a writer of words given as Strings only.
+     *
+     * @param out - where bytes are written
+     */
+    public WordWriter(OutputStream out) {
+        this(out, new Vocabulary());
+    }
+
+    /**
+     * Creates a writer of the words of the given vocabulary.
+     *
+     * @param out - where bytes are written
+     * @param vocabulary - words the written ids refer to
+     */
+    public WordWriter(OutputStream out, Vocabulary vocabulary) {
+        this.out = out;
+        this.vocabulary = vocabulary;
+    }
+
+    /**
+     * Writes the word with the given id followed by a space.
+     * O(length of word)
+     *
+     * @param id - word id
+     */
+    public void write(int id) throws IOException {
+        int length = vocabulary.wordLength(id);
+        if (length + 1 > buffer.length - position) {
+            flushBuffer();
+            //too big for the buffer
+            if (length + 1 > buffer.length) {
+                write(WordWriter.encode(vocabulary.wordOf(id)), 0, length + 1);
+                return;
+            }
+        }
+        vocabulary.copyWord(id, buffer, position);
+        position += length;
+        buffer[position++] = ' ';
+    }
+
+    /**
+     * Writes a word that may not have an id followed by a space.
+     *
+     * @param word - word to write
+     */
+    public void write(String word) throws IOException {
+        byte[] bytes = encode(word);
+        write(bytes, 0, bytes.length);
+    }
+
+    /**
+     * Writes every id of the iterator, writing seed in place of -1.
+     * O(number of words), constant memory
+     *
+     * @param ids - word ids, e.g. a WordIterator
+     * @param seed - word written for id -1
+     */
+    public void writeAll(PrimitiveIterator.OfInt ids, String seed) throws IOException {
+        byte[] seedBytes = encode(seed);
+        while (ids.hasNext()) {
+            int id = ids.nextInt();
+            if (id < 0)
+                write(seedBytes, 0, seedBytes.length);
+            else
+                write(id);
+        }
+    }
+
+    /**
+     * Writes raw bytes, e.g. text already encoded by encode.
+     */
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+        if (length > buffer.length - position) {
+            flushBuffer();
+            //too big to be worth copying
+            if (length > buffer.length) {
+                out.write(bytes, offset, length);
+                return;
+            }
+        }
+        System.arraycopy(bytes, offset, buffer, position, length);
+        position += length;
+    }
+
+    /**
+     * Returns the UTF-8 bytes of word followed by a space.
+     */
+    public static byte[] encode(String word) {
+        return (word + " ").getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Writes out everything buffered and flushes the stream.
+     */
+    public void flush() throws IOException {
+        flushBuffer();
+        out.flush();
+    }
+
+    /**
+     * Flushes and closes the stream.
+     */
+    @Override
+    public void close() throws IOException {
+        flush();
+        out.close();
+    }
+
+    /**
+     * Writes out the buffer.
+     */
+    private void flushBuffer() throws IOException {
+        if (position > 0) {
+            out.write(buffer, 0, position);
+            position = 0;
+        }
+    }
+}